@@ -0,0 +1,67 @@
+package com.desafiovendaxbrain.config;
+
+import com.desafiovendaxbrain.service.SaleIdempotencyService;
+import com.desafiovendaxbrain.service.SaleIngestionQueue;
+import com.desafiovendaxbrain.service.SellerCache;
+import com.desafiovendaxbrain.service.SellerStatisticsCache;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder saleIngestionQueueMetrics(SaleIngestionQueue saleIngestionQueue) {
+
+        return registry -> Gauge.builder("sales.ingestion.queue.size", saleIngestionQueue, SaleIngestionQueue::size)
+                .description("Sales accepted but not yet written")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder sellerStatisticsCacheMetrics(SellerStatisticsCache sellerStatisticsCache) {
+
+        return sellerStatisticsCache::bindTo;
+    }
+
+    @Bean
+    public MeterBinder saleIdempotencyMetrics(SaleIdempotencyService saleIdempotencyService) {
+
+        return saleIdempotencyService::bindTo;
+    }
+
+    @Bean
+    public MeterBinder sellerCacheMetrics(SellerCache sellerCache) {
+
+        return sellerCache::bindTo;
+    }
+
+    // Boot already publishes hikaricp.connections.*; this folds active and pending into one ratio per pool, where anything
+    // above 1 means requests are queueing for a connection.
+    @Bean
+    public MeterBinder dataSourcePoolSaturationMetrics(ObjectProvider<HikariDataSource> dataSources) {
+
+        return registry -> dataSources.orderedStream().forEach(dataSource ->
+                Gauge.builder("sales.datasource.pool.saturation", dataSource, MetricsConfig::poolSaturation)
+                        .description("Connections in use plus threads waiting for one, over the maximum pool size")
+                        .tag("pool", String.valueOf(dataSource.getPoolName()))
+                        .register(registry));
+    }
+
+    private static double poolSaturation(HikariDataSource dataSource) {
+
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+
+        if (pool == null) {
+            return Double.NaN;
+        }
+
+        return (double) (pool.getActiveConnections() + pool.getThreadsAwaitingConnection()) / dataSource.getMaximumPoolSize();
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.desafiovendaxbrain.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Sends connections of read-only transactions to the replica while it is within the staleness bound; everything else,
+// including work outside a transaction, goes to the primary.
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    private final ReplicaLagMonitor replicaLagMonitor;
+
+    public ReadReplicaRoutingDataSource(ReplicaLagMonitor replicaLagMonitor) {
+        this.replicaLagMonitor = replicaLagMonitor;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && replicaLagMonitor.isReplicaFresh()) {
+            return Target.REPLICA;
+        }
+
+        return Target.PRIMARY;
+    }
+
+}
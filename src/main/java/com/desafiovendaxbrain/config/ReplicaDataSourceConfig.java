@@ -0,0 +1,89 @@
+package com.desafiovendaxbrain.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+// Replaces the auto-configured data source with primary and replica pools behind a routing data source. Enabled with
+// sales.datasource.replica.enabled=true (see application-replica.yaml).
+@Configuration
+@ConditionalOnProperty (name = "sales.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties ("spring.datasource")
+    public DataSourceProperties primaryDataSourceProperties() {
+
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties ("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(@Qualifier ("primaryDataSourceProperties") DataSourceProperties properties) {
+
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties ("sales.datasource.replica")
+    public DataSourceProperties replicaDataSourceProperties() {
+
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties ("sales.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Qualifier ("replicaDataSourceProperties") DataSourceProperties properties) {
+
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier ("primaryDataSource") DataSource primaryDataSource,
+                                               @Qualifier ("replicaDataSource") DataSource replicaDataSource,
+                                               @Value ("${sales.datasource.replica.max-staleness:5s}") Duration maxStaleness,
+                                               @Value ("${sales.datasource.replica.heartbeat-interval:1s}") Duration heartbeatInterval) {
+
+        return new ReplicaLagMonitor(primaryDataSource, replicaDataSource, maxStaleness, heartbeatInterval);
+    }
+
+    // The lazy proxy holds off fetching the physical connection until the first statement, by which point the
+    // transaction manager has published the read-only flag the routing depends on.
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier ("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier ("replicaDataSource") DataSource replicaDataSource, ReplicaLagMonitor replicaLagMonitor) {
+
+        ReadReplicaRoutingDataSource routingDataSource = new ReadReplicaRoutingDataSource(replicaLagMonitor);
+        routingDataSource.setTargetDataSources(Map.of(ReadReplicaRoutingDataSource.Target.PRIMARY, primaryDataSource,
+                ReadReplicaRoutingDataSource.Target.REPLICA, replicaDataSource));
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        routingDataSource.afterPropertiesSet();
+
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public MeterBinder replicaLagMetrics(ReplicaLagMonitor replicaLagMonitor) {
+
+        return registry -> Gauge.builder("sales.datasource.replica.lag", replicaLagMonitor, ReplicaLagMonitor::lagSeconds)
+                .description("Seconds the replica is behind the primary, from the heartbeat row")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+}
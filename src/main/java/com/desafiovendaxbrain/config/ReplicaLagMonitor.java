@@ -0,0 +1,106 @@
+package com.desafiovendaxbrain.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Measures replication lag with a heartbeat row: the primary stamps it every interval and the replica is read right after,
+// so the difference is how far behind the replica is. A replica that cannot be read counts as stale.
+public class ReplicaLagMonitor implements SmartLifecycle {
+
+    private final static Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final Duration maxStaleness;
+    private final Duration heartbeatInterval;
+    private volatile Duration lag;
+    private ScheduledExecutorService scheduler;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, Duration maxStaleness, Duration heartbeatInterval) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxStaleness = maxStaleness;
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    // A zero bound turns the check off, e.g. for stand-in replicas that are not fed by the primary.
+    public boolean isReplicaFresh() {
+
+        if (maxStaleness.isZero()) {
+            return true;
+        }
+
+        Duration current = lag;
+
+        return current != null && current.compareTo(maxStaleness) <= 0;
+    }
+
+    public double lagSeconds() {
+
+        Duration current = lag;
+
+        return current == null ? Double.NaN : current.toMillis() / 1000.0;
+    }
+
+    void beat() {
+
+        OffsetDateTime now = Instant.now().atOffset(ZoneOffset.UTC);
+
+        try {
+            if (primary.update("UPDATE tb_replica_heartbeat SET beat_at = ? WHERE id = 1", now) == 0) {
+                primary.update("INSERT INTO tb_replica_heartbeat (id, beat_at) VALUES (1, ?)", now);
+            }
+
+            List<OffsetDateTime> replicated = replica.queryForList("SELECT beat_at FROM tb_replica_heartbeat WHERE id = 1", OffsetDateTime.class);
+            lag = replicated.isEmpty() ? null : Duration.between(replicated.get(0), Instant.now().atOffset(ZoneOffset.UTC));
+        } catch (RuntimeException e) {
+            lag = null;
+            logger.warn("Replica heartbeat failed, statistics reads stay on the primary: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+
+        if (maxStaleness.isZero()) {
+            return;
+        }
+
+        primary.execute("CREATE TABLE IF NOT EXISTS tb_replica_heartbeat (id INT PRIMARY KEY, beat_at TIMESTAMP WITH TIME ZONE NOT NULL)");
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::beat, 0, heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+
+        return scheduler != null;
+    }
+
+}
@@ -1,45 +1,380 @@
 package com.desafiovendaxbrain.controller;
 
+import com.desafiovendaxbrain.dto.SaleBatchResultDTO;
 import com.desafiovendaxbrain.dto.SaleDTO;
+import com.desafiovendaxbrain.dto.SalePartitionDTO;
 import com.desafiovendaxbrain.dto.SellerDTO;
+import com.desafiovendaxbrain.dto.SellerStatisticsPageDTO;
+import com.desafiovendaxbrain.dto.SellerTimeSeriesDTO;
+import com.desafiovendaxbrain.service.MalformedSaleException;
+import com.desafiovendaxbrain.service.SaleArchiveService;
+import com.desafiovendaxbrain.service.SaleIdempotencyService;
+import com.desafiovendaxbrain.service.SaleImportService;
+import com.desafiovendaxbrain.service.SaleIngestionRejectedException;
 import com.desafiovendaxbrain.service.SaleService;
+import com.desafiovendaxbrain.service.StatisticsPeriod;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
 
 @RestController
 @RequestMapping ("/api/sales")
 public class SaleController {
 
+    private final static String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private final static String TEXT_CSV_VALUE = "text/csv";
+    private final static String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private final static CsvSchema SALE_CSV_SCHEMA = CsvSchema.builder().addColumn("id").addColumn("saleDate").addColumn("amount")
+            .addColumn("sellerId").addColumn("sellerName").build().withHeader();
     private final SaleService saleService;
+    private final SaleArchiveService saleArchiveService;
+    private final SaleImportService saleImportService;
+    private final SaleIdempotencyService saleIdempotencyService;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper;
 
-    public SaleController(SaleService saleService) {
+    public SaleController(SaleService saleService, SaleArchiveService saleArchiveService, SaleImportService saleImportService,
+                          SaleIdempotencyService saleIdempotencyService, ObjectMapper objectMapper) {
         this.saleService = saleService;
+        this.saleArchiveService = saleArchiveService;
+        this.saleImportService = saleImportService;
+        this.saleIdempotencyService = saleIdempotencyService;
+        this.objectMapper = objectMapper;
+        this.csvMapper = CsvMapper.builder().addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+                .build();
     }
 
     @PostMapping
-    public ResponseEntity<SaleDTO> createSell(@RequestBody @Valid SaleDTO dto) {
+    public ResponseEntity<SaleDTO> createSell(@RequestBody @Valid SaleDTO dto,
+                                              @RequestHeader (value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
 
-        SaleDTO createdSale = saleService.createSale(dto);
+        if (saleService.isAsyncIngestionEnabled()) {
+
+            SaleDTO acceptedSale = idempotencyKey == null ? saleService.enqueueSale(dto) : saleIdempotencyService.enqueueSale(dto, idempotencyKey);
+
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(acceptedSale);
+        }
+
+        SaleDTO createdSale = idempotencyKey == null ? saleService.createSale(dto) : saleIdempotencyService.createSale(dto, idempotencyKey);
         HttpStatus status = HttpStatus.CREATED;
 
         return ResponseEntity.status(status).body(createdSale);
     }
 
+    @PostMapping (value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<SaleBatchResultDTO> createSellsInBatch(@RequestBody List<SaleDTO> dtos) {
+
+        SaleBatchResultDTO result = saleService.createSales(dtos);
+        HttpStatus status = HttpStatus.OK;
+
+        return ResponseEntity.status(status).body(result);
+    }
+
+    @PostMapping (value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<SaleBatchResultDTO> createSellsInBatchFromStream(InputStream body) throws IOException {
+
+        SaleBatchResultDTO result;
+
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            result = saleService.createSales(ndjsonSales(lines));
+        }
+
+        HttpStatus status = HttpStatus.OK;
+
+        return ResponseEntity.status(status).body(result);
+    }
+
+    // Files are spooled to disk by the multipart resolver and parsed row by row, in the format given by the file extension.
+    @PostMapping (value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<SaleBatchResultDTO> importSalesFromFile(@RequestParam ("file") MultipartFile file) throws IOException {
+
+        boolean csv = file.getOriginalFilename() != null && file.getOriginalFilename().toLowerCase().endsWith(".csv");
+
+        try (InputStream body = file.getInputStream()) {
+            return csv ? importSalesFromCsv(body) : importSalesFromNdjson(body);
+        }
+    }
+
+    @PostMapping (value = "/import", consumes = TEXT_CSV_VALUE)
+    public ResponseEntity<SaleBatchResultDTO> importSalesFromCsv(InputStream body) throws IOException {
+
+        SaleBatchResultDTO result;
+
+        try (MappingIterator<SaleDTO> sales = csvSaleReader().readValues(body)) {
+            result = saleImportService.importSales(csvSales(sales));
+        }
+
+        HttpStatus status = HttpStatus.OK;
+
+        return ResponseEntity.status(status).body(result);
+    }
+
+    @PostMapping (value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<SaleBatchResultDTO> importSalesFromNdjson(InputStream body) throws IOException {
+
+        SaleBatchResultDTO result;
+
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            result = saleImportService.importSales(ndjsonSales(lines));
+        }
+
+        HttpStatus status = HttpStatus.OK;
+
+        return ResponseEntity.status(status).body(result);
+    }
+
+    @GetMapping (value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportSalesAsNdjson(@RequestParam (required = true) Instant start, @RequestParam (required = false) Instant end) {
+
+        ObjectWriter saleWriter = objectMapper.writerFor(SaleDTO.class);
+
+        StreamingResponseBody sales = outputStream -> saleImportService.exportSales(start, end, sale -> {
+            try {
+                outputStream.write(saleWriter.writeValueAsBytes(sale));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        HttpStatus status = HttpStatus.OK;
+
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_NDJSON).body(sales);
+    }
+
+    @GetMapping (value = "/export", produces = TEXT_CSV_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportSalesAsCsv(@RequestParam (required = true) Instant start, @RequestParam (required = false) Instant end) {
+
+        StreamingResponseBody sales = outputStream -> {
+            try (SequenceWriter saleWriter = csvMapper.writerFor(SaleDTO.class).with(SALE_CSV_SCHEMA).writeValues(outputStream)) {
+                saleImportService.exportSales(start, end, sale -> {
+                    try {
+                        saleWriter.write(sale);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        HttpStatus status = HttpStatus.OK;
+
+        return ResponseEntity.status(status).contentType(MediaType.parseMediaType(TEXT_CSV_VALUE)).body(sales);
+    }
+
+    @PostMapping ("/rollups/rebuild")
+    public ResponseEntity<Integer> rebuildSellerRollups() {
+
+        int rebuiltRows = saleService.rebuildSellerRollups();
+        HttpStatus status = HttpStatus.OK;
+
+        return ResponseEntity.status(status).body(rebuiltRows);
+    }
+
+    @PostMapping ("/partitions/archive")
+    public ResponseEntity<List<SalePartitionDTO>> archiveSalesBeforeMonth(@RequestParam (required = true) String before) {
+
+        List<SalePartitionDTO> partitions = saleArchiveService.archiveBefore(before);
+        HttpStatus status = HttpStatus.OK;
+
+        return ResponseEntity.status(status).body(partitions);
+    }
+
+    @GetMapping ("/partitions")
+    public ResponseEntity<List<SalePartitionDTO>> searchSalePartitions() {
+
+        List<SalePartitionDTO> partitions = saleArchiveService.findPartitions();
+        HttpStatus status = HttpStatus.OK;
+
+        return ResponseEntity.status(status).body(partitions);
+    }
+
+    // The ETag comes from the resolved days and their data version, so a client (or proxy) revalidating an unchanged period gets
+    // a 304 before any statistics are computed. checkNotModified also writes the ETag on the 200 response. There is no
+    // Last-Modified: its one-second resolution would hide a write in the same second as the version that was served.
     @GetMapping
-    public ResponseEntity<List<SellerDTO>> searchSalesStatisticsByTimePeriod(@RequestParam (required = true)Instant start, @RequestParam (required = false) Instant end) {
+    public ResponseEntity<List<SellerDTO>> searchSalesStatisticsByTimePeriod(@RequestParam (required = true)Instant start, @RequestParam (required = false) Instant end,
+                                                                             @RequestParam (required = false) String sort, @RequestParam (required = false) Integer limit,
+                                                                             @RequestParam (required = false) String cursor, WebRequest webRequest) {
+
+        Optional<String> etag = saleService.getStatisticsETag(start, end);
+
+        if (etag.isPresent() && webRequest.checkNotModified("\"" + etag.get() + "\"")) {
+            return null;
+        }
+
+        HttpStatus status = HttpStatus.OK;
+
+        if (sort == null && limit == null && cursor == null) {
+
+            List<SellerDTO> sellersByPeriod = saleService.getSellerStatisticsByPeriod(start, end);
 
+            return ResponseEntity.status(status).cacheControl(CacheControl.noCache()).body(sellersByPeriod);
+        }
 
-        List<SellerDTO> sellersByPeriod = saleService.getSellerStatisticsByPeriod(start, end);
+        SellerStatisticsPageDTO page = saleService.getSellerStatisticsPage(start, end, sort, limit, cursor);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status).cacheControl(CacheControl.noCache());
+
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+
+        return response.body(page.sellers());
+    }
+
+    @GetMapping (params = "percentiles=true")
+    public ResponseEntity<List<SellerDTO>> searchSalesStatisticsWithPercentilesByTimePeriod(@RequestParam (required = true) Instant start,
+                                                                                          @RequestParam (required = false) Instant end) {
+
+        List<SellerDTO> sellersByPeriod = saleService.getSellerStatisticsWithPercentilesByPeriod(start, end);
         HttpStatus status = HttpStatus.OK;
 
         return ResponseEntity.status(status).body(sellersByPeriod);
     }
 
+    @GetMapping (params = "granularity")
+    public ResponseEntity<List<SellerTimeSeriesDTO>> searchSalesTimeSeriesByTimePeriod(@RequestParam (required = true) Instant start, @RequestParam (required = false) Instant end,
+                                                                                       @RequestParam (required = true) String granularity, @RequestParam (required = false) String zone) {
+
+        List<SellerTimeSeriesDTO> seriesByPeriod = saleService.getSellerTimeSeriesByPeriod(start, end, granularity, zone);
+        HttpStatus status = HttpStatus.OK;
+
+        return ResponseEntity.status(status).body(seriesByPeriod);
+    }
+
+    @GetMapping (value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamSalesStatisticsByTimePeriod(@RequestParam (required = true) Instant start, @RequestParam (required = false) Instant end) {
+
+        ObjectWriter sellerWriter = objectMapper.writerFor(SellerDTO.class);
+        StatisticsPeriod period = saleService.resolveStatisticsPeriod(start, end);
+
+        StreamingResponseBody sellersByPeriod = outputStream -> saleService.streamSellerStatisticsByPeriod(period, seller -> {
+            try {
+                outputStream.write(sellerWriter.writeValueAsBytes(seller));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        HttpStatus status = HttpStatus.OK;
+
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_NDJSON).body(sellersByPeriod);
+    }
+
+    // Each line is parsed on its own, so a malformed line is reported at its index (blank lines are skipped and not counted)
+    // instead of failing the request after earlier chunks were already committed.
+    private Iterable<SaleDTO> ndjsonSales(BufferedReader lines) {
+
+        ObjectReader saleReader = objectMapper.readerFor(SaleDTO.class);
+
+        return () -> new Iterator<>() {
+
+            private String line;
+
+            @Override
+            public boolean hasNext() {
+
+                try {
+                    while (line == null || line.isBlank()) {
+                        line = lines.readLine();
+
+                        if (line == null) {
+                            return false;
+                        }
+                    }
+                    return true;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public SaleDTO next() {
+
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                String current = line;
+                line = null;
+
+                try {
+                    return saleReader.readValue(current);
+                } catch (JsonProcessingException e) {
+                    throw new MalformedSaleException("Malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+        };
+    }
+
+    // The CSV parser reads one row per value and skips to the next row after a mapping error, so a row whose columns
+    // can't be converted (amount=abc, say) is reported at its index like a malformed NDJSON line.
+    private Iterable<SaleDTO> csvSales(MappingIterator<SaleDTO> sales) {
+
+        return () -> new Iterator<>() {
+
+            @Override
+            public boolean hasNext() {
 
+                return sales.hasNext();
+            }
+
+            @Override
+            public SaleDTO next() {
+
+                try {
+                    return sales.next();
+                } catch (RuntimeJsonMappingException e) {
+                    throw new MalformedSaleException("Malformed CSV row: " + (e.getCause() instanceof JsonProcessingException cause
+                            ? cause.getOriginalMessage() : e.getMessage()));
+                }
+            }
+        };
+    }
+
+    // The header row names the columns, so files may list them in any order.
+    private ObjectReader csvSaleReader() {
+
+        return csvMapper.readerFor(SaleDTO.class).with(CsvSchema.emptySchema().withHeader());
+    }
+
+    @ExceptionHandler (SaleIngestionRejectedException.class)
+    public ResponseEntity<Void> handleIngestionRejected() {
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").build();
+    }
 
 }
@@ -0,0 +1,21 @@
+package com.desafiovendaxbrain.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+// The services reject invalid client input (sort, limit, cursor, zone, granularity, Idempotency-Key) with
+// IllegalArgumentException, and a period whose end is before its start with ArithmeticException. Both are the client's
+// mistake, so every controller answers them with 400 instead of 500.
+@RestControllerAdvice
+public class SaleExceptionHandler {
+
+    @ExceptionHandler ({IllegalArgumentException.class, ArithmeticException.class})
+    public ResponseEntity<ProblemDetail> handleInvalidArgument(RuntimeException e) {
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage()));
+    }
+
+}
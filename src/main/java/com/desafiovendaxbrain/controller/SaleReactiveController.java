@@ -0,0 +1,31 @@
+package com.desafiovendaxbrain.controller;
+
+import com.desafiovendaxbrain.dto.SellerDTO;
+import com.desafiovendaxbrain.service.SaleService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+
+// Spring MVC subscribes to the Flux asynchronously: the servlet thread goes back to the pool and the response is written when the sellers arrive.
+@RestController
+@RequestMapping ("/api/reactive/sales")
+public class SaleReactiveController {
+
+    private final SaleService saleService;
+
+    public SaleReactiveController(SaleService saleService) {
+        this.saleService = saleService;
+    }
+
+    @GetMapping (produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<SellerDTO> searchSalesStatisticsByTimePeriod(@RequestParam (required = true) Instant start, @RequestParam (required = false) Instant end) {
+
+        return saleService.getSellerStatisticsFluxByPeriod(start, end);
+    }
+
+}
@@ -0,0 +1,6 @@
+package com.desafiovendaxbrain.dto;
+
+import java.util.List;
+
+public record SaleBatchResultDTO (int received, int created, List<SaleBatchErrorDTO> errors) {
+}
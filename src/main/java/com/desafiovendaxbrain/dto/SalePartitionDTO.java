@@ -0,0 +1,6 @@
+package com.desafiovendaxbrain.dto;
+
+import java.time.YearMonth;
+
+public record SalePartitionDTO (YearMonth month, String tableName, Long archivedRows) {
+}
@@ -0,0 +1,7 @@
+package com.desafiovendaxbrain.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record SalesBucketDTO (LocalDate start, long totalSales, BigDecimal averageDailySales) {
+}
@@ -0,0 +1,6 @@
+package com.desafiovendaxbrain.dto;
+
+import java.math.BigDecimal;
+
+public record SellerAmountPercentilesDTO (BigDecimal median, BigDecimal p95) {
+}
@@ -1,4 +1,25 @@
 package com.desafiovendaxbrain.dto;
 
-public record SellerDTO (String sellerName, Long totalSales, Double averageDailySales) {
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public record SellerDTO (String sellerName, long totalSales, @JsonIgnore long totalAmountCents, @JsonIgnore long days,
+                         @JsonInclude (JsonInclude.Include.NON_NULL) SellerAmountPercentilesDTO amountPercentiles) {
+
+    // Percentiles are only filled in when requested; everywhere else the response keeps its original shape.
+    public SellerDTO(String sellerName, long totalSales, long totalAmountCents, long days) {
+        this(sellerName, totalSales, totalAmountCents, days, null);
+    }
+
+    // Only computed when the response is written; until then the statistics path carries plain longs.
+    @JsonProperty
+    public BigDecimal averageDailySales() {
+
+        return BigDecimal.valueOf(totalAmountCents, 2).divide(BigDecimal.valueOf(days), 2, RoundingMode.HALF_EVEN);
+    }
+
 }
@@ -0,0 +1,6 @@
+package com.desafiovendaxbrain.dto;
+
+import java.util.List;
+
+public record SellerStatisticsPageDTO (List<SellerDTO> sellers, String nextCursor) {
+}
@@ -0,0 +1,6 @@
+package com.desafiovendaxbrain.dto;
+
+import java.util.List;
+
+public record SellerTimeSeriesDTO (Long sellerId, String sellerName, List<SalesBucketDTO> buckets) {
+}
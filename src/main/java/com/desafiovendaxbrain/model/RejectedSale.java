@@ -0,0 +1,47 @@
+package com.desafiovendaxbrain.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// Dead letter of the write-behind queue: a sale already acknowledged with 202 and its reserved id that could not be written
+// to tb_venda, kept with the reason so it can be inspected and replayed instead of being lost.
+@Getter
+@Setter
+
+@Entity
+@Table (name = "tb_venda_rejeitada")
+public class RejectedSale {
+    @Id
+    private Long id;
+    @Column(name = "sale_date")
+    private Instant saleDate;
+    @Column(name = "amount", precision = 10, scale = 2)
+    private BigDecimal amount;
+    @Column(name = "seller_id")
+    private Long sellerId;
+    @Column(name = "seller_name", length = 100)
+    private String sellerName;
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+    @Column(name = "reason", length = 500)
+    private String reason;
+    private Instant rejectedAt;
+
+    public RejectedSale(Sale sale, String reason, Instant rejectedAt) {
+        this.id = sale.getId();
+        this.saleDate = sale.getSaleDate();
+        this.amount = sale.getAmount();
+        this.sellerId = sale.getSellerId();
+        this.sellerName = sale.getSellerName();
+        this.idempotencyKey = sale.getIdempotencyKey();
+        this.reason = reason;
+        this.rejectedAt = rejectedAt;
+    }
+
+    public RejectedSale() {
+    }
+}
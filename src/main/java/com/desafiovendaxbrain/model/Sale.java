@@ -11,17 +11,24 @@ import java.time.Instant;
 @Setter
 
 @Entity
-@Table (name = "tb_venda")
+@Table (name = "tb_venda", indexes = {@Index(name = "idx_venda_data_vendedor_valor", columnList = "sale_date, seller_id, amount"),
+        @Index(name = "idx_venda_chave_idempotencia", columnList = "idempotency_key", unique = true)})
 public class Sale {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sale_seq")
+    @SequenceGenerator(name = "sale_seq", sequenceName = "tb_venda_seq", allocationSize = 50)
     private Long id;
+    @Column(name = "sale_date")
     private Instant saleDate;
-    @Column(precision = 10, scale = 2)
+    @Column(name = "amount", precision = 10, scale = 2)
     private BigDecimal amount;
+    @Column(name = "seller_id")
     private Long sellerId;
-    @Column(length = 100)
+    // Only carried from the request to tb_vendedor (see SellerCache); rows read back from tb_venda leave it empty.
+    @Transient
     private String sellerName;
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
 
     public Sale(Long id, Instant saleDate, BigDecimal amount, Long sellerId, String sellerName) {
         this.id = id;
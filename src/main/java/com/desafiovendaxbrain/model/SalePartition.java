@@ -0,0 +1,34 @@
+package com.desafiovendaxbrain.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+// Catalog of the monthly tables that archived sales were moved into; month is the first day of the partition's month (UTC).
+@Getter
+@Setter
+
+@Entity
+@Table (name = "tb_venda_particao")
+public class SalePartition {
+    @Id
+    @Column(name = "partition_month")
+    private LocalDate month;
+    @Column(name = "table_name", length = 30, nullable = false)
+    private String tableName;
+    private Long archivedRows;
+    private Instant archivedAt;
+
+    public SalePartition(LocalDate month, String tableName, Long archivedRows, Instant archivedAt) {
+        this.month = month;
+        this.tableName = tableName;
+        this.archivedRows = archivedRows;
+        this.archivedAt = archivedAt;
+    }
+
+    public SalePartition() {
+    }
+}
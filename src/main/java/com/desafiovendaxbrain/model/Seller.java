@@ -0,0 +1,26 @@
+package com.desafiovendaxbrain.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+// One row per seller; sales and rollups only carry the seller id. The id is the one the clients send, not generated here.
+@Getter
+@Setter
+
+@Entity
+@Table (name = "tb_vendedor")
+public class Seller {
+    @Id
+    private Long id;
+    @Column(length = 100, nullable = false)
+    private String name;
+
+    public Seller(Long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public Seller() {
+    }
+}
@@ -0,0 +1,51 @@
+package com.desafiovendaxbrain.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+
+@Entity
+@Table (name = "tb_vendedor_faixa_valor_diaria", uniqueConstraints = @UniqueConstraint(columnNames = {"sale_day", "seller_id", "bucket"}))
+public class SellerDailyAmountBucket {
+
+    // Bucket i holds amounts (in cents) in (GAMMA^(i-1), GAMMA^i], so any value in it is within RELATIVE_ACCURACY of the bucket midpoint.
+    public final static double RELATIVE_ACCURACY = 0.01;
+    public final static double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    public final static double LOG_GAMMA = Math.log(GAMMA);
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "seller_id", nullable = false)
+    private Long sellerId;
+    @Column(name = "sale_day", nullable = false)
+    private LocalDate day;
+    @Column(nullable = false)
+    private Integer bucket;
+    private Long saleCount;
+
+    public SellerDailyAmountBucket(Long sellerId, LocalDate day, Integer bucket, Long saleCount) {
+        this.sellerId = sellerId;
+        this.day = day;
+        this.bucket = bucket;
+        this.saleCount = saleCount;
+    }
+
+    public SellerDailyAmountBucket() {
+    }
+
+    // amount is NUMERIC(10, 2), so buckets stay below bucketOf(10^10 cents), roughly 1150 of them.
+    public static int bucketOf(BigDecimal amount) {
+
+        double cents = Math.max(1, amount.movePointRight(2).doubleValue());
+
+        return (int) Math.ceil(Math.log(cents) / LOG_GAMMA);
+    }
+
+}
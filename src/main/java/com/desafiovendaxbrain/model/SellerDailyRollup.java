@@ -0,0 +1,36 @@
+package com.desafiovendaxbrain.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+
+@Entity
+@Table (name = "tb_vendedor_resumo_diario", uniqueConstraints = @UniqueConstraint(columnNames = {"sale_day", "seller_id"}))
+public class SellerDailyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "seller_id", nullable = false)
+    private Long sellerId;
+    @Column(name = "sale_day", nullable = false)
+    private LocalDate day;
+    private Long saleCount;
+    @Column(precision = 19, scale = 2)
+    private BigDecimal amountSum;
+
+    public SellerDailyRollup(Long sellerId, LocalDate day, Long saleCount, BigDecimal amountSum) {
+        this.sellerId = sellerId;
+        this.day = day;
+        this.saleCount = saleCount;
+        this.amountSum = amountSum;
+    }
+
+    public SellerDailyRollup() {
+    }
+}
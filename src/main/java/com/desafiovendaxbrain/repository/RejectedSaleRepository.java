@@ -0,0 +1,9 @@
+package com.desafiovendaxbrain.repository;
+
+import com.desafiovendaxbrain.model.RejectedSale;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RejectedSaleRepository extends JpaRepository<RejectedSale, Long> {
+}
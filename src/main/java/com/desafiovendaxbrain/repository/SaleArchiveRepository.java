@@ -0,0 +1,18 @@
+package com.desafiovendaxbrain.repository;
+
+import com.desafiovendaxbrain.model.Sale;
+
+import java.time.YearMonth;
+import java.util.Optional;
+
+public interface SaleArchiveRepository {
+
+    // Moves the month's sales out of tb_venda into its partition table and returns how many were moved.
+    long archiveMonth(YearMonth month);
+
+    Optional<YearMonth> findOldestCurrentMonth();
+
+    // The unique index on tb_venda only covers current sales, so a key is also looked up in the archived months.
+    Optional<Sale> findArchivedByIdempotencyKey(String idempotencyKey);
+
+}
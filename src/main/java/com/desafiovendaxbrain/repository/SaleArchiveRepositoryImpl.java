@@ -0,0 +1,153 @@
+package com.desafiovendaxbrain.repository;
+
+import com.desafiovendaxbrain.model.Sale;
+import com.desafiovendaxbrain.model.SalePartition;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+
+public class SaleArchiveRepositoryImpl implements SaleArchiveRepository {
+
+    private final static DateTimeFormatter TIMESTAMP_LITERAL = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ssxxx");
+
+    // Same columns and index as tb_venda; the check constraint plays the part of a native partition bound.
+    private final static String CREATE_PARTITION = """
+            CREATE TABLE IF NOT EXISTS %1$s (
+                id BIGINT PRIMARY KEY,
+                sale_date TIMESTAMP WITH TIME ZONE NOT NULL,
+                amount NUMERIC(10, 2),
+                seller_id BIGINT,
+                idempotency_key VARCHAR(100),
+                CHECK (sale_date >= TIMESTAMP WITH TIME ZONE '%2$s' AND sale_date < TIMESTAMP WITH TIME ZONE '%3$s')
+            )
+            """;
+    private final static String CREATE_PARTITION_INDEX = "CREATE INDEX IF NOT EXISTS idx_%1$s_data_vendedor_valor ON %1$s (sale_date, seller_id, amount)";
+    private final static String CREATE_PARTITION_KEY_INDEX = "CREATE UNIQUE INDEX IF NOT EXISTS idx_%1$s_chave_idempotencia ON %1$s (idempotency_key)";
+    private final static String SALE_BY_KEY = "SELECT id, sale_date, amount, seller_id FROM %s WHERE idempotency_key = ?";
+    private final static String COUNT_MONTH = "SELECT COUNT(*) FROM tb_venda WHERE sale_date >= ? AND sale_date < ?";
+    private final static String COPY_MONTH = """
+            INSERT INTO %s (id, sale_date, amount, seller_id, idempotency_key)
+            SELECT id, sale_date, amount, seller_id, idempotency_key FROM tb_venda WHERE sale_date >= ? AND sale_date < ?
+            """;
+    // Only rows already in the partition are deleted: a sale of the month committed between the copy and the delete (a late
+    // import, say) stays in tb_venda for the next run instead of being dropped without a copy.
+    private final static String DELETE_MONTH = "DELETE FROM tb_venda WHERE sale_date >= ? AND sale_date < ? AND id IN (SELECT id FROM %s)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    private final SalePartitionRepository partitionRepository;
+
+    public SaleArchiveRepositoryImpl(SalePartitionRepository partitionRepository) {
+        this.partitionRepository = partitionRepository;
+    }
+
+    @Override
+    @Transactional
+    public long archiveMonth(YearMonth month) {
+
+        OffsetDateTime monthStart = month.atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+        OffsetDateTime nextMonthStart = month.plusMonths(1).atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+        String table = SaleSources.tableName(month);
+
+        long moved = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+
+            try (PreparedStatement count = connection.prepareStatement(COUNT_MONTH)) {
+                count.setObject(1, monthStart);
+                count.setObject(2, nextMonthStart);
+                try (ResultSet resultSet = count.executeQuery()) {
+                    resultSet.next();
+                    if (resultSet.getLong(1) == 0) {
+                        return 0L;
+                    }
+                }
+            }
+
+            try (Statement ddl = connection.createStatement()) {
+                ddl.execute(CREATE_PARTITION.formatted(table, TIMESTAMP_LITERAL.format(monthStart), TIMESTAMP_LITERAL.format(nextMonthStart)));
+                ddl.execute(CREATE_PARTITION_INDEX.formatted(table));
+                ddl.execute(CREATE_PARTITION_KEY_INDEX.formatted(table));
+            }
+
+            long copied;
+
+            try (PreparedStatement copy = connection.prepareStatement(COPY_MONTH.formatted(table));
+                 PreparedStatement delete = connection.prepareStatement(DELETE_MONTH.formatted(table))) {
+                copy.setObject(1, monthStart);
+                copy.setObject(2, nextMonthStart);
+                copied = copy.executeUpdate();
+                delete.setObject(1, monthStart);
+                delete.setObject(2, nextMonthStart);
+                delete.executeUpdate();
+            }
+
+            return copied;
+        });
+
+        if (moved > 0) {
+            SalePartition partition = partitionRepository.findById(month.atDay(1))
+                    .orElseGet(() -> new SalePartition(month.atDay(1), table, 0L, null));
+            partition.setArchivedRows(partition.getArchivedRows() + moved);
+            partition.setArchivedAt(Instant.now());
+            partitionRepository.save(partition);
+        }
+
+        return moved;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<YearMonth> findOldestCurrentMonth() {
+
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT MIN(sale_date) FROM tb_venda")) {
+                resultSet.next();
+                return Optional.ofNullable(resultSet.getObject(1, OffsetDateTime.class))
+                        .map(x -> YearMonth.from(x.withOffsetSameInstant(ZoneOffset.UTC)));
+            }
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Sale> findArchivedByIdempotencyKey(String idempotencyKey) {
+
+        List<SalePartition> partitions = partitionRepository.findAllByOrderByMonth();
+
+        if (partitions.isEmpty()) {
+            return Optional.empty();
+        }
+
+        String query = SaleSources.unionAll(partitions.stream().map(SalePartition::getTableName).toList(), SALE_BY_KEY);
+
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(query)) {
+
+                for (int parameter = 1; parameter <= partitions.size(); parameter++) {
+                    statement.setString(parameter, idempotencyKey);
+                }
+
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (!resultSet.next()) {
+                        return Optional.empty();
+                    }
+                    return Optional.of(new Sale(resultSet.getLong(1), resultSet.getObject(2, OffsetDateTime.class).toInstant(),
+                            resultSet.getBigDecimal(3), resultSet.getLong(4), null));
+                }
+            }
+        });
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.desafiovendaxbrain.repository;
+
+import com.desafiovendaxbrain.model.Sale;
+
+import java.util.List;
+
+public interface SaleBatchRepository {
+
+    int insertInBatch(List<Sale> sales);
+
+    int insertReservedInBatch(List<Sale> sales);
+
+    Long reserveId(Sale sale);
+
+}
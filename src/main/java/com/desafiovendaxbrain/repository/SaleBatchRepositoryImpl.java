@@ -0,0 +1,75 @@
+package com.desafiovendaxbrain.repository;
+
+import com.desafiovendaxbrain.model.Sale;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.time.ZoneOffset;
+import java.util.List;
+
+public class SaleBatchRepositoryImpl implements SaleBatchRepository {
+
+    private final static String INSERT_RESERVED_SALE = """
+            INSERT INTO tb_venda (id, sale_date, amount, seller_id, idempotency_key) VALUES (?, ?, ?, ?, ?)
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Persists the whole chunk in a single transaction so Hibernate can group the inserts into JDBC batches
+    // (hibernate.jdbc.batch_size), then clears the context so a long import does not keep every entity managed.
+    @Override
+    @Transactional
+    public int insertInBatch(List<Sale> sales) {
+
+        for (Sale sale : sales) {
+            entityManager.persist(sale);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        return sales.size();
+    }
+
+    // Sales whose id was handed out by reserveId cannot go through persist (Hibernate would treat them as detached),
+    // so they are written with a plain JDBC batch on the session's connection.
+    @Override
+    @Transactional
+    public int insertReservedInBatch(List<Sale> sales) {
+
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_RESERVED_SALE)) {
+                for (Sale sale : sales) {
+                    statement.setLong(1, sale.getId());
+                    statement.setObject(2, sale.getSaleDate().atOffset(ZoneOffset.UTC));
+                    statement.setBigDecimal(3, sale.getAmount());
+                    statement.setLong(4, sale.getSellerId());
+                    statement.setString(5, sale.getIdempotencyKey());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+
+        return sales.size();
+    }
+
+    // Draws the id from the same pooled sequence generator Hibernate uses for persist, so reserved ids never collide with generated ones.
+    @Override
+    @Transactional
+    public Long reserveId(Sale sale) {
+
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        EntityPersister persister = session.getEntityPersister(null, sale);
+
+        return (Long) ((IdentifierGenerator) persister.getGenerator()).generate(session, sale);
+    }
+
+}
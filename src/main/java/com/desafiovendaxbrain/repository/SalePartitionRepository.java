@@ -0,0 +1,17 @@
+package com.desafiovendaxbrain.repository;
+
+import com.desafiovendaxbrain.model.SalePartition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SalePartitionRepository extends JpaRepository<SalePartition, LocalDate> {
+
+    List<SalePartition> findByMonthBetweenOrderByMonth(LocalDate firstMonth, LocalDate lastMonth);
+
+    List<SalePartition> findAllByOrderByMonth();
+
+}
@@ -0,0 +1,18 @@
+package com.desafiovendaxbrain.repository;
+
+import com.desafiovendaxbrain.model.Sale;
+import com.desafiovendaxbrain.repository.projection.SellerDailySales;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface SaleSeriesRepository {
+
+    List<SellerDailySales> findDailySellerSales(Instant startDate, Instant endDate, ZoneId zone);
+
+    // Hands each sale of the range to the consumer as it is read; the sales are never attached to the persistence context.
+    void forEachSale(Instant startDate, Instant endDate, Consumer<Sale> consumer);
+
+}
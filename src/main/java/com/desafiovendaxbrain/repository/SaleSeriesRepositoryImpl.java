@@ -0,0 +1,145 @@
+package com.desafiovendaxbrain.repository;
+
+import com.desafiovendaxbrain.model.Sale;
+import com.desafiovendaxbrain.repository.projection.SellerDailySales;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class SaleSeriesRepositoryImpl implements SaleSeriesRepository {
+
+    // The local day depends on the requested zone, which the UTC daily rollups cannot provide, so this reads the raw
+    // sales through the (sale_date, seller_id, amount) index of tb_venda and of each archived month overlapping the range.
+    // The range is split where the zone's offset changes, and within each piece the local day is the epoch day of the
+    // instant shifted by that fixed offset. A CAST to DATE would use the session time zone instead of the requested one.
+    private final static String DAILY_SELLER_SALES = """
+            SELECT seller_id, sale_day, COUNT(*), SUM(amount) FROM (
+            %s
+            ) AS local_sales
+            GROUP BY seller_id, sale_day ORDER BY seller_id, sale_day
+            """;
+    private final static String LOCAL_SALES = """
+            SELECT seller_id, amount, FLOOR((EXTRACT(EPOCH FROM sale_date) + ?) / 86400) AS sale_day
+            FROM %s WHERE sale_date >= ? AND sale_date < ?""";
+    private final static String SALES = "SELECT * FROM (\n%s\n) AS sales ORDER BY sale_date, id";
+    private final static String RANGE_SALES = """
+            SELECT id, sale_date, amount, seller_id FROM %s WHERE sale_date >= ? AND sale_date < ?""";
+    private final static int FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    private final SalePartitionRepository partitionRepository;
+
+    public SaleSeriesRepositoryImpl(SalePartitionRepository partitionRepository) {
+        this.partitionRepository = partitionRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SellerDailySales> findDailySellerSales(Instant startDate, Instant endDate, ZoneId zone) {
+
+        List<String> tables = SaleSources.overlapping(partitionRepository, startDate, endDate);
+        List<OffsetSegment> segments = OffsetSegment.split(startDate, endDate, zone);
+        String query = dailySellerSalesQuery(tables, segments.size());
+
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(query)) {
+
+                int parameter = 0;
+
+                for (OffsetSegment segment : segments) {
+                    for (int i = 0; i < tables.size(); i++) {
+                        statement.setInt(++parameter, segment.offset().getTotalSeconds());
+                        statement.setObject(++parameter, segment.start().atOffset(ZoneOffset.UTC));
+                        statement.setObject(++parameter, segment.end().atOffset(ZoneOffset.UTC));
+                    }
+                }
+
+                List<SellerDailySales> dailySales = new ArrayList<>();
+
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        dailySales.add(new SellerDailySales(resultSet.getLong(1), LocalDate.ofEpochDay(resultSet.getLong(2)),
+                                resultSet.getLong(3), resultSet.getBigDecimal(4)));
+                    }
+                }
+
+                return dailySales;
+            }
+        });
+    }
+
+    // Parameters, per segment and then per table: the offset in seconds, the segment start and the segment end.
+    static String dailySellerSalesQuery(List<String> tables, int segments) {
+
+        String localSales = SaleSources.unionAll(tables, LOCAL_SALES);
+
+        return DAILY_SELLER_SALES.formatted(String.join("\nUNION ALL\n", Collections.nCopies(segments, localSales)));
+    }
+
+    private record OffsetSegment (Instant start, Instant end, ZoneOffset offset) {
+
+        static List<OffsetSegment> split(Instant startDate, Instant endDate, ZoneId zone) {
+
+            ZoneRules rules = zone.getRules();
+            List<OffsetSegment> segments = new ArrayList<>();
+            Instant start = startDate;
+
+            while (start.isBefore(endDate)) {
+
+                ZoneOffsetTransition transition = rules.nextTransition(start);
+                Instant end = transition == null || !transition.getInstant().isBefore(endDate) ? endDate : transition.getInstant();
+
+                segments.add(new OffsetSegment(start, end, rules.getOffset(start)));
+                start = end;
+            }
+
+            return segments;
+        }
+
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachSale(Instant startDate, Instant endDate, Consumer<Sale> consumer) {
+
+        List<String> tables = SaleSources.overlapping(partitionRepository, startDate, endDate);
+        String query = SALES.formatted(SaleSources.unionAll(tables, RANGE_SALES));
+
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(query)) {
+
+                statement.setFetchSize(FETCH_SIZE);
+                int parameter = 0;
+
+                for (int i = 0; i < tables.size(); i++) {
+                    statement.setObject(++parameter, startDate.atOffset(ZoneOffset.UTC));
+                    statement.setObject(++parameter, endDate.atOffset(ZoneOffset.UTC));
+                }
+
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        consumer.accept(new Sale(resultSet.getLong(1), resultSet.getObject(2, OffsetDateTime.class).toInstant(),
+                                resultSet.getBigDecimal(3), resultSet.getLong(4), null));
+                    }
+                }
+            }
+        });
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.desafiovendaxbrain.repository;
+
+import com.desafiovendaxbrain.model.SalePartition;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+// Raw sales live in tb_venda (current months, plus late sales dated in an archived month) and in one table per archived
+// month. Range reads union tb_venda with only the partitions overlapping the range, so older months are never scanned.
+final class SaleSources {
+
+    final static String CURRENT_TABLE = "tb_venda";
+
+    private SaleSources() {
+    }
+
+    static String tableName(YearMonth month) {
+
+        return "tb_venda_%d_%02d".formatted(month.getYear(), month.getMonthValue());
+    }
+
+    static List<String> overlapping(SalePartitionRepository partitionRepository, Instant startDate, Instant endDate) {
+
+        YearMonth firstMonth = YearMonth.from(startDate.atOffset(ZoneOffset.UTC));
+        YearMonth lastMonth = YearMonth.from(endDate.minusNanos(1).atOffset(ZoneOffset.UTC));
+
+        return withCurrent(partitionRepository.findByMonthBetweenOrderByMonth(firstMonth.atDay(1), lastMonth.atDay(1)));
+    }
+
+    static List<String> all(SalePartitionRepository partitionRepository) {
+
+        return withCurrent(partitionRepository.findAllByOrderByMonth());
+    }
+
+    // The select must contain a single %s for the table; parameters are repeated once per table by the caller.
+    static String unionAll(List<String> tables, String select) {
+
+        return String.join("\nUNION ALL\n", tables.stream().map(select::formatted).toList());
+    }
+
+    private static List<String> withCurrent(List<SalePartition> partitions) {
+
+        List<String> tables = new ArrayList<>(partitions.size() + 1);
+        tables.add(CURRENT_TABLE);
+        partitions.forEach(x -> tables.add(x.getTableName()));
+
+        return tables;
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.desafiovendaxbrain.repository;
+
+import com.desafiovendaxbrain.model.SellerDailyAmountBucket;
+import com.desafiovendaxbrain.repository.projection.SellerAmountBucket;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SellerDailyAmountBucketRepository extends JpaRepository<SellerDailyAmountBucket, Long> {
+
+    // Daily buckets are merged by summing their counts, so the period is one grouped scan instead of sorting every sale amount.
+    @QueryHints (@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query ("""
+            SELECT new com.desafiovendaxbrain.repository.projection.SellerAmountBucket(b.sellerId, b.bucket, SUM(b.saleCount)) FROM SellerDailyAmountBucket b
+            WHERE b.day BETWEEN :startDay AND :endDay GROUP BY b.sellerId, b.bucket
+            """)
+    List<SellerAmountBucket> findSellerAmountBucketsByPeriod(LocalDate startDay, LocalDate endDay);
+
+    @Modifying
+    @Query ("DELETE FROM SellerDailyAmountBucket b")
+    int deleteAllBuckets();
+
+}
@@ -0,0 +1,14 @@
+package com.desafiovendaxbrain.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface SellerDailyRollupIncrementRepository {
+
+    // Adds to the (seller, UTC day) rollup, creating it if this is the day's first sale for the seller.
+    void addToRollup(Long sellerId, LocalDate day, long saleCount, BigDecimal amountSum);
+
+    // Same for the (seller, UTC day, amount bucket) count.
+    void addToAmountBucket(Long sellerId, LocalDate day, int bucket, long saleCount);
+
+}
@@ -0,0 +1,85 @@
+package com.desafiovendaxbrain.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.LocalDate;
+
+public class SellerDailyRollupIncrementRepositoryImpl implements SellerDailyRollupIncrementRepository {
+
+    private final static String INCREMENT_ROLLUP = """
+            UPDATE tb_vendedor_resumo_diario SET sale_count = sale_count + ?, amount_sum = amount_sum + ? WHERE seller_id = ? AND sale_day = ?""";
+    private final static String INSERT_ROLLUP = """
+            INSERT INTO tb_vendedor_resumo_diario (sale_count, amount_sum, seller_id, sale_day) VALUES (?, ?, ?, ?)""";
+    private final static String INCREMENT_AMOUNT_BUCKET = """
+            UPDATE tb_vendedor_faixa_valor_diaria SET sale_count = sale_count + ? WHERE seller_id = ? AND sale_day = ? AND bucket = ?""";
+    private final static String INSERT_AMOUNT_BUCKET = """
+            INSERT INTO tb_vendedor_faixa_valor_diaria (sale_count, seller_id, sale_day, bucket) VALUES (?, ?, ?, ?)""";
+    private final static String UNIQUE_VIOLATION = "23505";
+    private final static int MAX_ATTEMPTS = 3;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public void addToRollup(Long sellerId, LocalDate day, long saleCount, BigDecimal amountSum) {
+
+        entityManager.unwrap(Session.class).doWork(connection -> increment(connection, INCREMENT_ROLLUP, INSERT_ROLLUP, saleCount, amountSum, sellerId, day));
+    }
+
+    @Override
+    @Transactional
+    public void addToAmountBucket(Long sellerId, LocalDate day, int bucket, long saleCount) {
+
+        entityManager.unwrap(Session.class).doWork(connection -> increment(connection, INCREMENT_AMOUNT_BUCKET, INSERT_AMOUNT_BUCKET, saleCount, sellerId, day, bucket));
+    }
+
+    // Two transactions recording the first sale of the same key both miss the UPDATE and both INSERT; the loser gets a
+    // unique violation. The INSERT runs under a savepoint, so the loser rolls back only that statement and retries the
+    // UPDATE, which now finds the winner's row, instead of failing a transaction that has already written its sales.
+    private void increment(Connection connection, String update, String insert, Object... parameters) throws SQLException {
+
+        for (int attempt = 1; ; attempt++) {
+
+            if (execute(connection, update, parameters) > 0) {
+                return;
+            }
+
+            Savepoint savepoint = connection.setSavepoint();
+
+            try {
+                execute(connection, insert, parameters);
+                connection.releaseSavepoint(savepoint);
+                return;
+            } catch (SQLException e) {
+
+                connection.rollback(savepoint);
+
+                if (!UNIQUE_VIOLATION.equals(e.getSQLState()) || attempt == MAX_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private int execute(Connection connection, String sql, Object... parameters) throws SQLException {
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+
+            return statement.executeUpdate();
+        }
+    }
+
+}
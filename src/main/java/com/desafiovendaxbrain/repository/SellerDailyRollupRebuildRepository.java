@@ -0,0 +1,11 @@
+package com.desafiovendaxbrain.repository;
+
+public interface SellerDailyRollupRebuildRepository {
+
+    // Recomputes every (seller, UTC day) rollup from tb_venda and the archived month tables.
+    int rebuildFromSales();
+
+    // Same for the (seller, UTC day, amount bucket) counts behind the ticket size percentiles.
+    int rebuildAmountBucketsFromSales();
+
+}
@@ -0,0 +1,61 @@
+package com.desafiovendaxbrain.repository;
+
+import com.desafiovendaxbrain.model.SellerDailyAmountBucket;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public class SellerDailyRollupRebuildRepositoryImpl implements SellerDailyRollupRebuildRepository {
+
+    // Native because the archived months are plain tables outside the entity model; the union is rebuilt on every call
+    // so newly archived months are picked up.
+    private final static String REBUILD = """
+            INSERT INTO tb_vendedor_resumo_diario (seller_id, sale_day, sale_count, amount_sum)
+            SELECT seller_id, sale_day, COUNT(*), SUM(amount) FROM (
+            %s
+            ) AS all_sales
+            GROUP BY seller_id, sale_day
+            """;
+    // Mirrors SellerDailyAmountBucket.bucketOf so rebuilt buckets match the ones recorded on insert.
+    private final static String REBUILD_AMOUNT_BUCKETS = """
+            INSERT INTO tb_vendedor_faixa_valor_diaria (seller_id, sale_day, bucket, sale_count)
+            SELECT seller_id, sale_day, bucket, COUNT(*) FROM (
+            SELECT seller_id, sale_day, CAST(CEIL(LN(GREATEST(amount * 100, 1)) / %s) AS INT) AS bucket FROM (
+            %s
+            ) AS all_sales
+            ) AS bucketed_sales
+            GROUP BY seller_id, sale_day, bucket
+            """;
+    private final static String UTC_SALES = """
+            SELECT seller_id, amount, CAST(sale_date AT TIME ZONE 'UTC' AS DATE) AS sale_day FROM %s""";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    private final SalePartitionRepository partitionRepository;
+
+    public SellerDailyRollupRebuildRepositoryImpl(SalePartitionRepository partitionRepository) {
+        this.partitionRepository = partitionRepository;
+    }
+
+    @Override
+    @Transactional
+    public int rebuildFromSales() {
+
+        List<String> tables = SaleSources.all(partitionRepository);
+
+        return entityManager.createNativeQuery(REBUILD.formatted(SaleSources.unionAll(tables, UTC_SALES))).executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public int rebuildAmountBucketsFromSales() {
+
+        List<String> tables = SaleSources.all(partitionRepository);
+
+        return entityManager.createNativeQuery(REBUILD_AMOUNT_BUCKETS.formatted(SellerDailyAmountBucket.LOG_GAMMA,
+                SaleSources.unionAll(tables, UTC_SALES))).executeUpdate();
+    }
+
+}
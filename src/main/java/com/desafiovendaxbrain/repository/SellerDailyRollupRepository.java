@@ -0,0 +1,62 @@
+package com.desafiovendaxbrain.repository;
+
+import com.desafiovendaxbrain.model.SellerDailyRollup;
+import com.desafiovendaxbrain.repository.projection.SellerDailySales;
+import com.desafiovendaxbrain.repository.projection.SellerProjection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface SellerDailyRollupRepository extends JpaRepository<SellerDailyRollup, Long>, SellerDailyRollupRebuildRepository,
+        SellerDailyRollupIncrementRepository {
+
+    @Query ("""
+            SELECT new com.desafiovendaxbrain.repository.projection.SellerProjection(r.sellerId, SUM(r.saleCount), CAST(SUM(r.amountSum) * 100 AS Long), COUNT(r)) FROM SellerDailyRollup r WHERE r.day BETWEEN :startDay AND :endDay GROUP BY r.sellerId ORDER BY r.sellerId
+            """)
+    Optional<List<SellerProjection>> findSellerStatisticsByPeriod(LocalDate startDay, LocalDate endDay);
+
+    // Rows are written as they are fetched, so the seller name order of the non-paged list has to come from the query itself.
+    @QueryHints (@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query ("""
+            SELECT new com.desafiovendaxbrain.repository.projection.SellerProjection(r.sellerId, SUM(r.saleCount), CAST(SUM(r.amountSum) * 100 AS Long), COUNT(r)) FROM SellerDailyRollup r LEFT JOIN Seller s ON s.id = r.sellerId WHERE r.day BETWEEN :startDay AND :endDay GROUP BY r.sellerId, s.name ORDER BY s.name NULLS LAST, r.sellerId
+            """)
+    Stream<SellerProjection> streamSellerStatisticsByPeriod(LocalDate startDay, LocalDate endDay);
+
+    @QueryHints (@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query ("""
+            SELECT new com.desafiovendaxbrain.repository.projection.SellerDailySales(r.sellerId, r.day, r.saleCount, r.amountSum) FROM SellerDailyRollup r WHERE r.day >= :startDay
+            """)
+    Stream<SellerDailySales> streamDailySalesFrom(LocalDate startDay);
+
+    // Keyset pages: the cursor is the (metric, sellerId) of the last row returned, so every page starts right after it instead of skipping an offset.
+    @Query ("""
+            SELECT new com.desafiovendaxbrain.repository.projection.SellerProjection(r.sellerId, SUM(r.saleCount), CAST(SUM(r.amountSum) * 100 AS Long), COUNT(r)) FROM SellerDailyRollup r WHERE r.day BETWEEN :startDay AND :endDay GROUP BY r.sellerId
+            HAVING SUM(r.saleCount) < :lastTotalSales OR (SUM(r.saleCount) = :lastTotalSales AND r.sellerId > :lastSellerId)
+            ORDER BY SUM(r.saleCount) DESC, r.sellerId ASC
+            """)
+    List<SellerProjection> findSellerStatisticsPageByTotalSales(LocalDate startDay, LocalDate endDay, Long lastTotalSales, Long lastSellerId, Pageable page);
+
+    @Query ("""
+            SELECT new com.desafiovendaxbrain.repository.projection.SellerProjection(r.sellerId, SUM(r.saleCount), CAST(SUM(r.amountSum) * 100 AS Long), COUNT(r)) FROM SellerDailyRollup r WHERE r.day BETWEEN :startDay AND :endDay GROUP BY r.sellerId
+            HAVING SUM(r.amountSum) < :lastTotalAmount OR (SUM(r.amountSum) = :lastTotalAmount AND r.sellerId > :lastSellerId)
+            ORDER BY SUM(r.amountSum) DESC, r.sellerId ASC
+            """)
+    List<SellerProjection> findSellerStatisticsPageByTotalAmount(LocalDate startDay, LocalDate endDay, BigDecimal lastTotalAmount, Long lastSellerId, Pageable page);
+
+    @Modifying
+    @Query ("DELETE FROM SellerDailyRollup r")
+    int deleteAllRollups();
+
+}
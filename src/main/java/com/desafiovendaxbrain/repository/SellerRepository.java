@@ -0,0 +1,17 @@
+package com.desafiovendaxbrain.repository;
+
+import com.desafiovendaxbrain.model.Seller;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SellerRepository extends JpaRepository<Seller, Long> {
+
+    // Inserts the seller or renames it; the latest name sent with a sale wins.
+    @Modifying
+    @Query (value = "MERGE INTO tb_vendedor (id, name) KEY (id) VALUES (:id, :name)", nativeQuery = true)
+    int upsertName(Long id, String name);
+
+}
@@ -0,0 +1,4 @@
+package com.desafiovendaxbrain.repository.projection;
+
+public record SellerAmountBucket (Long sellerId, Integer bucket, Long saleCount) {
+}
@@ -0,0 +1,7 @@
+package com.desafiovendaxbrain.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record SellerDailySales (Long sellerId, LocalDate day, Long totalSales, BigDecimal totalAmount) {
+}
@@ -1,9 +1,6 @@
 package com.desafiovendaxbrain.repository.projection;
 
-public interface SellerProjection {
-
-    String getSellerName();
-    Long getTotalSales();
-    Double getAverageSalesByDay();
-
+// Built by JPQL constructor expressions, so each row is one record instead of a proxy over a tuple. The amount stays in
+// cents until the average is written out.
+public record SellerProjection (Long sellerId, Long totalSales, Long totalAmountCents, Long scannedRows) {
 }
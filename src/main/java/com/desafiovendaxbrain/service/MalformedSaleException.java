@@ -0,0 +1,10 @@
+package com.desafiovendaxbrain.service;
+
+// Thrown by a sale source for one entry it could not parse. Batches and imports report it against that entry and keep going.
+public class MalformedSaleException extends RuntimeException {
+
+    public MalformedSaleException(String message) {
+        super(message);
+    }
+
+}
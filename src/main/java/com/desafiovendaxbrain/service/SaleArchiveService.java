@@ -0,0 +1,69 @@
+package com.desafiovendaxbrain.service;
+
+import com.desafiovendaxbrain.dto.SalePartitionDTO;
+import com.desafiovendaxbrain.repository.SalePartitionRepository;
+import com.desafiovendaxbrain.repository.SaleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Optional;
+
+// Moves closed months out of tb_venda so range reads over recent days touch a small table, while older ranges only
+// scan the month tables they overlap. Rollups are keyed by day and stay as they are.
+@Service
+public class SaleArchiveService {
+
+    private final static Logger logger = LoggerFactory.getLogger(SaleArchiveService.class);
+    private final SaleRepository saleRepository;
+    private final SalePartitionRepository partitionRepository;
+
+    public SaleArchiveService(SaleRepository saleRepository, SalePartitionRepository partitionRepository) {
+        this.saleRepository = saleRepository;
+        this.partitionRepository = partitionRepository;
+    }
+
+    // Every month is moved in its own transaction, so a failure keeps the months already archived.
+    public List<SalePartitionDTO> archiveBefore(String before) {
+
+        YearMonth firstKeptMonth = parseMonth(before);
+
+        if (firstKeptMonth.isAfter(YearMonth.now(ZoneOffset.UTC))) {
+            throw new IllegalArgumentException("The current month can't be archived");
+        }
+
+        Optional<YearMonth> oldestMonth = saleRepository.findOldestCurrentMonth();
+
+        for (YearMonth month = oldestMonth.orElse(firstKeptMonth); month.isBefore(firstKeptMonth); month = month.plusMonths(1)) {
+
+            long archived = saleRepository.archiveMonth(month);
+
+            if (archived > 0) {
+                logger.info("Archived {} sales of {}", archived, month);
+            }
+        }
+
+        return findPartitions();
+    }
+
+    public List<SalePartitionDTO> findPartitions() {
+
+        return partitionRepository.findAllByOrderByMonth().stream()
+                .map(x -> new SalePartitionDTO(YearMonth.from(x.getMonth()), x.getTableName(), x.getArchivedRows()))
+                .toList();
+    }
+
+    private static YearMonth parseMonth(String month) {
+
+        try {
+            return YearMonth.parse(month);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("The month must be in the yyyy-MM format!", e);
+        }
+    }
+
+}
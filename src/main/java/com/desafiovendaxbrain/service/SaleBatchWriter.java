@@ -0,0 +1,60 @@
+package com.desafiovendaxbrain.service;
+
+import com.desafiovendaxbrain.model.Sale;
+import com.desafiovendaxbrain.repository.SaleRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+@Component
+public class SaleBatchWriter {
+
+    private final SaleRepository saleRepository;
+    private final SellerRollupService sellerRollupService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SaleMetrics saleMetrics;
+
+    public SaleBatchWriter(SaleRepository saleRepository, SellerRollupService sellerRollupService, TransactionTemplate transactionTemplate,
+                           ApplicationEventPublisher eventPublisher, SaleMetrics saleMetrics) {
+        this.saleRepository = saleRepository;
+        this.sellerRollupService = sellerRollupService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.saleMetrics = saleMetrics;
+    }
+
+    // Each chunk and its rollup increments commit together, so a failed chunk never leaves the rollups out of step with tb_venda.
+    public int write(List<Sale> sales) {
+
+        int inserted = transactionTemplate.execute(status -> {
+            int written = saleRepository.insertInBatch(sales);
+            recordWritten(sales);
+            return written;
+        });
+        saleMetrics.recordIngested("batch", inserted);
+
+        return inserted;
+    }
+
+    public int writeReserved(List<Sale> sales) {
+
+        int inserted = transactionTemplate.execute(status -> {
+            int written = saleRepository.insertReservedInBatch(sales);
+            recordWritten(sales);
+            return written;
+        });
+        saleMetrics.recordIngested("async", inserted);
+
+        return inserted;
+    }
+
+    private void recordWritten(List<Sale> sales) {
+
+        sellerRollupService.record(sales);
+        eventPublisher.publishEvent(new SalesRecordedEvent(List.copyOf(sales)));
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.desafiovendaxbrain.service;
+
+import com.desafiovendaxbrain.dto.SaleDTO;
+import com.desafiovendaxbrain.repository.SaleRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+// Retries carrying the same Idempotency-Key get the first result back instead of a second sale. Recent keys are
+// answered from memory; older ones fall back to the unique index on tb_venda.idempotency_key, which also settles two
+// first attempts racing each other, and then to the archived months, whose tables carry the same index.
+@Service
+public class SaleIdempotencyService {
+
+    private final static int MAXIMUM_KEY_LENGTH = 100;
+    private final Cache<String, SaleDTO> results;
+    private final SaleService saleService;
+    private final SaleRepository saleRepository;
+    private final SellerCache sellerCache;
+
+    public SaleIdempotencyService(@Value("${sales.idempotency.maximum-size:100000}") long maximumSize,
+                                  @Value("${sales.idempotency.ttl:24h}") Duration ttl,
+                                  SaleService saleService, SaleRepository saleRepository, SellerCache sellerCache) {
+        this.saleService = saleService;
+        this.saleRepository = saleRepository;
+        this.sellerCache = sellerCache;
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public SaleDTO createSale(SaleDTO dto, String idempotencyKey) {
+
+        validate(idempotencyKey);
+
+        SaleDTO result = results.getIfPresent(idempotencyKey);
+
+        if (result != null) {
+            return result;
+        }
+
+        result = findPersisted(idempotencyKey).orElseGet(() -> {
+            try {
+                return saleService.createSale(dto, idempotencyKey);
+            } catch (DataIntegrityViolationException e) {
+                return findPersisted(idempotencyKey).orElseThrow(() -> e);
+            }
+        });
+        results.put(idempotencyKey, result);
+
+        return result;
+    }
+
+    // The row only exists once the write-behind queue flushes, so the key is claimed in memory: the reservation runs at
+    // most once per key while it is cached, and concurrent retries wait for it and share its result.
+    public SaleDTO enqueueSale(SaleDTO dto, String idempotencyKey) {
+
+        validate(idempotencyKey);
+
+        return results.get(idempotencyKey, key -> findPersisted(key).orElseGet(() -> saleService.enqueueSale(dto, key)));
+    }
+
+    public void bindTo(MeterRegistry meterRegistry) {
+
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "sale-idempotency");
+    }
+
+    private Optional<SaleDTO> findPersisted(String idempotencyKey) {
+
+        return saleRepository.findByIdempotencyKey(idempotencyKey).or(() -> saleRepository.findArchivedByIdempotencyKey(idempotencyKey)).map(x -> new SaleDTO(x.getId(), x.getSaleDate(), x.getAmount(),
+                x.getSellerId(), sellerCache.name(x.getSellerId())));
+    }
+
+    private void validate(String idempotencyKey) {
+
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAXIMUM_KEY_LENGTH) {
+            throw new IllegalArgumentException("The Idempotency-Key must have between 1 and " + MAXIMUM_KEY_LENGTH + " characters");
+        }
+    }
+
+}
@@ -0,0 +1,142 @@
+package com.desafiovendaxbrain.service;
+
+import com.desafiovendaxbrain.dto.SaleBatchErrorDTO;
+import com.desafiovendaxbrain.dto.SaleBatchResultDTO;
+import com.desafiovendaxbrain.dto.SaleDTO;
+import com.desafiovendaxbrain.model.Sale;
+import com.desafiovendaxbrain.repository.SaleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+// Bulk loads (a new store's history) and exports. Rows are read one at a time from the request body, so memory is
+// bounded by the chunks in flight, not by the size of the file.
+@Service
+public class SaleImportService {
+
+    private final static Logger logger = LoggerFactory.getLogger(SaleImportService.class);
+    private final SaleService saleService;
+    private final SaleBatchWriter saleBatchWriter;
+    private final SaleRepository saleRepository;
+    private final SellerCache sellerCache;
+    private final int parallelism;
+    private final int chunkSize;
+
+    public SaleImportService(SaleService saleService, SaleBatchWriter saleBatchWriter, SaleRepository saleRepository, SellerCache sellerCache,
+                             @Value("${sales.import.parallelism:4}") int parallelism,
+                             @Value("${sales.import.chunk-size:500}") int chunkSize) {
+        this.saleService = saleService;
+        this.saleBatchWriter = saleBatchWriter;
+        this.saleRepository = saleRepository;
+        this.sellerCache = sellerCache;
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+    }
+
+    // Sales are split into one lane per writer thread by seller, so two chunks never contend for the same seller's rollup
+    // rows. Each lane keeps at most one chunk being written and one being filled.
+    public SaleBatchResultDTO importSales(Iterable<SaleDTO> dtos) {
+
+        List<List<Sale>> lanes = new ArrayList<>(parallelism);
+        List<Future<Integer>> writes = new ArrayList<>(parallelism);
+        List<SaleBatchErrorDTO> errors = new ArrayList<>();
+        int received = 0;
+        int created = 0;
+
+        for (int i = 0; i < parallelism; i++) {
+            lanes.add(new ArrayList<>(chunkSize));
+            writes.add(null);
+        }
+
+        try (ExecutorService writers = Executors.newFixedThreadPool(parallelism, Thread.ofPlatform().name("sale-import-", 0).factory())) {
+
+            for (Iterator<SaleDTO> iterator = dtos.iterator(); iterator.hasNext(); received++) {
+
+                SaleDTO dto;
+
+                try {
+                    dto = iterator.next();
+                } catch (MalformedSaleException e) {
+                    errors.add(new SaleBatchErrorDTO(received, List.of(e.getMessage())));
+                    continue;
+                }
+
+                List<String> violations = saleService.validate(dto);
+
+                if (violations.isEmpty()) {
+                    Sale sale = new Sale();
+                    saleService.mapDTOToEntity(sale, dto);
+
+                    int lane = Math.floorMod(Long.hashCode(sale.getSellerId()), parallelism);
+                    lanes.get(lane).add(sale);
+
+                    if (lanes.get(lane).size() == chunkSize) {
+                        created += await(writes.get(lane));
+                        writes.set(lane, submit(writers, lanes.get(lane)));
+                        lanes.set(lane, new ArrayList<>(chunkSize));
+                    }
+                } else {
+                    errors.add(new SaleBatchErrorDTO(received, violations));
+                }
+            }
+
+            for (int lane = 0; lane < parallelism; lane++) {
+                created += await(writes.get(lane));
+
+                if (!lanes.get(lane).isEmpty()) {
+                    created += await(submit(writers, lanes.get(lane)));
+                }
+            }
+        }
+
+        logger.info("Import finished: {} sales received, {} created, {} rejected", received, created, errors.size());
+
+        return new SaleBatchResultDTO(received, created, errors);
+    }
+
+    public void exportSales(Instant startDate, Instant endDate, Consumer<SaleDTO> consumer) {
+
+        if (endDate == null) {
+            endDate = Instant.now();
+        }
+
+        saleRepository.forEachSale(startDate, endDate, x -> consumer.accept(new SaleDTO(x.getId(), x.getSaleDate(), x.getAmount(),
+                x.getSellerId(), sellerCache.name(x.getSellerId()))));
+    }
+
+    private Future<Integer> submit(ExecutorService writers, List<Sale> chunk) {
+
+        return writers.submit(() -> saleBatchWriter.write(chunk));
+    }
+
+    private static int await(Future<Integer> write) {
+
+        if (write == null) {
+            return 0;
+        }
+
+        try {
+            return write.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while importing sales", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+}
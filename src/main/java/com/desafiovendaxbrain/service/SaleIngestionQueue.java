@@ -0,0 +1,198 @@
+package com.desafiovendaxbrain.service;
+
+import com.desafiovendaxbrain.model.RejectedSale;
+import com.desafiovendaxbrain.model.Sale;
+import com.desafiovendaxbrain.repository.RejectedSaleRepository;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class SaleIngestionQueue implements SmartLifecycle {
+
+    private final static Logger logger = LoggerFactory.getLogger(SaleIngestionQueue.class);
+    // Stops after the web server (which stops in a higher phase), so requests accepted during shutdown are still drained
+    private final static int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+    private final static int REASON_LENGTH = 500;
+
+    private final boolean enabled;
+    private final BlockingQueue<Sale> queue;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Duration drainTimeout;
+    private final SaleBatchWriter saleBatchWriter;
+    private final RejectedSaleRepository rejectedSaleRepository;
+    private final SaleMetrics saleMetrics;
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public SaleIngestionQueue(@Value("${sales.ingestion.async.enabled:false}") boolean enabled,
+                              @Value("${sales.ingestion.async.queue-capacity:10000}") int queueCapacity,
+                              @Value("${sales.ingestion.async.batch-size:500}") int batchSize,
+                              @Value("${sales.ingestion.async.flush-interval:200ms}") Duration flushInterval,
+                              @Value("${sales.ingestion.async.drain-timeout:30s}") Duration drainTimeout,
+                              SaleBatchWriter saleBatchWriter, RejectedSaleRepository rejectedSaleRepository, SaleMetrics saleMetrics) {
+        this.enabled = enabled;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.drainTimeout = drainTimeout;
+        this.saleBatchWriter = saleBatchWriter;
+        this.rejectedSaleRepository = rejectedSaleRepository;
+        this.saleMetrics = saleMetrics;
+    }
+
+    public boolean isEnabled() {
+
+        return enabled;
+    }
+
+    public boolean offer(Sale sale) {
+
+        return running && queue.offer(sale);
+    }
+
+    public int size() {
+
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+
+        running = true;
+        writerThread = Thread.ofPlatform().name("sale-write-behind").start(this::writeLoop);
+        logger.info("Asynchronous sale ingestion started (capacity {}, batch size {}, flush interval {})",
+                queue.remainingCapacity(), batchSize, flushInterval);
+    }
+
+    @Override
+    public void stop() {
+
+        running = false;
+
+        try {
+            writerThread.join(drainTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (!queue.isEmpty()) {
+            logger.error("Shutdown drain timed out, {} queued sales were not written", queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+
+        return enabled;
+    }
+
+    @Override
+    public int getPhase() {
+
+        return PHASE;
+    }
+
+    // A batch is flushed when it reaches batchSize or when flushInterval has passed since its first sale, whichever comes first.
+    private void writeLoop() {
+
+        while (running || !queue.isEmpty()) {
+
+            try {
+                Sale first = queue.poll(flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+
+                if (first == null) {
+                    continue;
+                }
+
+                List<Sale> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                long deadline = System.nanoTime() + flushInterval.toNanos();
+
+                while (batch.size() < batchSize) {
+
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+
+                    Sale next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+
+                    if (next == null) {
+                        break;
+                    }
+
+                    batch.add(next);
+                }
+
+                write(batch);
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // Every sale in the batch was already acknowledged, so a failed batch is retried one sale at a time: one bad row (a taken
+    // idempotency key, say) only costs itself, and only the sales that still fail go to the dead letter table.
+    private void write(List<Sale> batch) {
+
+        try {
+            saleBatchWriter.writeReserved(batch);
+        } catch (RuntimeException e) {
+
+            logger.warn("Failed to write {} queued sales (ids {} to {}), retrying them one by one", batch.size(), batch.get(0).getId(),
+                    batch.get(batch.size() - 1).getId(), e);
+
+            for (Sale sale : batch) {
+                writeOrReject(sale);
+            }
+        }
+    }
+
+    private void writeOrReject(Sale sale) {
+
+        try {
+            saleBatchWriter.writeReserved(List.of(sale));
+        } catch (RuntimeException e) {
+
+            saleMetrics.recordRejected("async", 1);
+
+            try {
+                rejectedSaleRepository.save(new RejectedSale(sale, StringUtils.abbreviate(String.valueOf(e.getMessage()), REASON_LENGTH), Instant.now()));
+                logger.error("Queued sale {} could not be written and was moved to tb_venda_rejeitada", sale.getId(), e);
+            } catch (RuntimeException deadLetterFailure) {
+                e.addSuppressed(deadLetterFailure);
+                logger.error("Queued sale {} could not be written nor dead-lettered and is lost: {}", sale.getId(), describe(sale), e);
+            }
+        }
+    }
+
+    private static String describe(Sale sale) {
+
+        return "saleDate=%s, amount=%s, sellerId=%d, sellerName=%s, idempotencyKey=%s".formatted(sale.getSaleDate(), sale.getAmount(),
+                sale.getSellerId(), sale.getSellerName(), sale.getIdempotencyKey());
+    }
+
+}
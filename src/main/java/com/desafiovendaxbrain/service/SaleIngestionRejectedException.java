@@ -0,0 +1,9 @@
+package com.desafiovendaxbrain.service;
+
+public class SaleIngestionRejectedException extends RuntimeException {
+
+    public SaleIngestionRejectedException(String message) {
+        super(message);
+    }
+
+}
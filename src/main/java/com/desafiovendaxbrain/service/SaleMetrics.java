@@ -0,0 +1,48 @@
+package com.desafiovendaxbrain.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class SaleMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Timer statisticsQueryTimer;
+    private final DistributionSummary statisticsRows;
+    private final DistributionSummary statisticsScannedRows;
+
+    public SaleMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.statisticsQueryTimer = Timer.builder("sales.statistics.query")
+                .description("Time spent running the seller statistics aggregate")
+                .register(meterRegistry);
+        this.statisticsRows = DistributionSummary.builder("sales.statistics.rows")
+                .description("Sellers returned by the statistics aggregate")
+                .register(meterRegistry);
+        this.statisticsScannedRows = DistributionSummary.builder("sales.statistics.scanned.rows")
+                .description("Daily rollup rows read by the statistics aggregate")
+                .register(meterRegistry);
+    }
+
+    public void recordStatisticsQuery(long elapsedNanos, int rows, long scannedRows) {
+
+        statisticsQueryTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        statisticsRows.record(rows);
+        statisticsScannedRows.record(scannedRows);
+    }
+
+    public void recordIngested(String path, int sales) {
+
+        meterRegistry.counter("sales.ingested", "path", path).increment(sales);
+    }
+
+    public void recordRejected(String path, int sales) {
+
+        meterRegistry.counter("sales.rejected", "path", path).increment(sales);
+    }
+
+}
@@ -1,71 +1,414 @@
 package com.desafiovendaxbrain.service;
 
+import com.desafiovendaxbrain.dto.SaleBatchErrorDTO;
+import com.desafiovendaxbrain.dto.SaleBatchResultDTO;
 import com.desafiovendaxbrain.dto.SaleDTO;
+import com.desafiovendaxbrain.dto.SellerAmountPercentilesDTO;
 import com.desafiovendaxbrain.dto.SellerDTO;
+import com.desafiovendaxbrain.dto.SellerStatisticsPageDTO;
+import com.desafiovendaxbrain.dto.SellerTimeSeriesDTO;
 import com.desafiovendaxbrain.model.Sale;
 import com.desafiovendaxbrain.repository.SaleRepository;
+import com.desafiovendaxbrain.repository.projection.SellerDailySales;
 import com.desafiovendaxbrain.repository.projection.SellerProjection;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
-import java.time.Duration;
+import java.time.DateTimeException;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 public class SaleService {
 
     private final static Logger logger = LoggerFactory.getLogger(SaleService.class);
+    private final static int BATCH_CHUNK_SIZE = 500;
+    private final static ZoneId DEFAULT_ZONE = ZoneOffset.UTC;
     private final SaleRepository saleRepository;
+    private final SellerRollupService sellerRollupService;
+    private final SellerStatisticsCache sellerStatisticsCache;
+    private final SellerStatisticsEngine sellerStatisticsEngine;
+    private final SaleBatchWriter saleBatchWriter;
+    private final SaleIngestionQueue saleIngestionQueue;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SaleMetrics saleMetrics;
+    private final SellerCache sellerCache;
+    private final SellerStatisticsChunkedAggregator chunkedAggregator;
+    private final StatisticsDataVersions statisticsDataVersions;
 
-    public SaleService(SaleRepository saleRepository) {
+    public SaleService(SaleRepository saleRepository, SellerRollupService sellerRollupService, SellerStatisticsCache sellerStatisticsCache,
+                       SellerStatisticsEngine sellerStatisticsEngine, SaleBatchWriter saleBatchWriter, SaleIngestionQueue saleIngestionQueue, Validator validator,
+                       ApplicationEventPublisher eventPublisher, SaleMetrics saleMetrics, SellerCache sellerCache,
+                       SellerStatisticsChunkedAggregator chunkedAggregator, StatisticsDataVersions statisticsDataVersions) {
         this.saleRepository = saleRepository;
+        this.sellerRollupService = sellerRollupService;
+        this.sellerStatisticsCache = sellerStatisticsCache;
+        this.sellerStatisticsEngine = sellerStatisticsEngine;
+        this.saleBatchWriter = saleBatchWriter;
+        this.saleIngestionQueue = saleIngestionQueue;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.saleMetrics = saleMetrics;
+        this.sellerCache = sellerCache;
+        this.chunkedAggregator = chunkedAggregator;
+        this.statisticsDataVersions = statisticsDataVersions;
     }
 
 
+    @Transactional
     public SaleDTO createSale(SaleDTO dto) {
 
+        return createSale(dto, null);
+    }
+
+    // The sale never enters the persistence context: the id comes from the pooled sequence and the row is written with a
+    // direct JDBC insert, so there is no persist, dirty check or flush. The insert runs immediately, so a taken idempotency
+    // key fails here on the unique index before any rollup is touched.
+    @Transactional
+    public SaleDTO createSale(SaleDTO dto, String idempotencyKey) {
+
         Sale sale = new Sale();
         mapDTOToEntity(sale, dto);
+        sale.setIdempotencyKey(idempotencyKey);
+        sale.setId(saleRepository.reserveId(sale));
+
+        saleRepository.insertReservedInBatch(List.of(sale));
+        sellerRollupService.record(List.of(sale));
+        eventPublisher.publishEvent(new SalesRecordedEvent(List.of(sale)));
+        saleMetrics.recordIngested("single", 1);
+
+        return new SaleDTO(sale.getId(), dto.saleDate(), dto.amount(), dto.sellerId(), dto.sellerName());
 
-        Sale persistedSaleEntity = saleRepository.save(sale);
+    }
+
+    public boolean isAsyncIngestionEnabled() {
+
+        return saleIngestionQueue.isEnabled();
+    }
 
-        return new SaleDTO(persistedSaleEntity.getId(), persistedSaleEntity.getSaleDate(),
-                persistedSaleEntity.getAmount(), persistedSaleEntity.getSellerId(), persistedSaleEntity.getSellerName());
+    // Reserves the sale id up front and leaves the insert to the write-behind queue, so the caller gets its id before the row exists.
+    public SaleDTO enqueueSale(SaleDTO dto) {
 
+        return enqueueSale(dto, null);
     }
 
+    public SaleDTO enqueueSale(SaleDTO dto, String idempotencyKey) {
+
+        Sale sale = new Sale();
+        mapDTOToEntity(sale, dto);
+        sale.setIdempotencyKey(idempotencyKey);
+        sale.setId(saleRepository.reserveId(sale));
+
+        if (!saleIngestionQueue.offer(sale)) {
+
+            throw new SaleIngestionRejectedException("The ingestion queue is full, try again later!");
+        }
+
+        return new SaleDTO(sale.getId(), sale.getSaleDate(), sale.getAmount(), sale.getSellerId(), sale.getSellerName());
+    }
+
+    public SaleBatchResultDTO createSales(Iterable<SaleDTO> dtos) {
+
+        List<Sale> chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+        List<SaleBatchErrorDTO> errors = new ArrayList<>();
+        int received = 0;
+        int created = 0;
+
+        for (Iterator<SaleDTO> iterator = dtos.iterator(); iterator.hasNext(); received++) {
+
+            SaleDTO dto;
+
+            try {
+                dto = iterator.next();
+            } catch (MalformedSaleException e) {
+                errors.add(new SaleBatchErrorDTO(received, List.of(e.getMessage())));
+                continue;
+            }
+
+            List<String> violations = validate(dto);
+
+            if (violations.isEmpty()) {
+                Sale sale = new Sale();
+                mapDTOToEntity(sale, dto);
+                chunk.add(sale);
+            } else {
+                errors.add(new SaleBatchErrorDTO(received, violations));
+            }
+
+            if (chunk.size() == BATCH_CHUNK_SIZE) {
+                created += saleBatchWriter.write(chunk);
+                chunk.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            created += saleBatchWriter.write(chunk);
+        }
+
+        logger.info("Batch finished: {} sales received, {} created, {} rejected", received, created, errors.size());
+
+        return new SaleBatchResultDTO(received, created, errors);
+    }
+
+    // Changes whenever a sale for one of the period's days is committed, so it can answer conditional requests before any aggregation runs.
+    // The resolved days are part of the tag because an omitted end moves with the current day, and with it the averages.
+    // Empty while the period's last commit is within the settle time, since a lagging replica could still serve older data.
+    public Optional<String> getStatisticsETag(Instant startDate, Instant endDate) {
+
+        StatisticsPeriod period = resolvePeriod(startDate, endDate);
+        long version = statisticsDataVersions.version(period);
+
+        if (!statisticsDataVersions.isSettled(version)) {
+            return Optional.empty();
+        }
+
+        return Optional.of("%s-%s-%x".formatted(period.startDay(), period.endDay(), version));
+    }
+
+    // Deliberately outside a transaction: the engine and the cache answer without a connection, and the database fallback opens
+    // its own read-only transactions (one per chunk for long periods) in SellerRollupService.
     public List<SellerDTO> getSellerStatisticsByPeriod(Instant startDate, Instant endDate) {
 
+        StatisticsPeriod period = resolvePeriod(startDate, endDate);
+
+        long engineStart = System.nanoTime();
+        Optional<List<SellerProjection>> inMemoryStatistics = sellerStatisticsEngine.findSellerStatisticsByPeriod(period);
+
+        if (inMemoryStatistics.isPresent()) {
+            List<SellerDTO> statistics = mapProjectionsToDTOs(inMemoryStatistics.get(), period.days());
+            saleMetrics.recordStatisticsQuery(System.nanoTime() - engineStart, statistics.size(), 0);
+            return statistics;
+        }
+
+        Optional<List<SellerDTO>> cachedStatistics = sellerStatisticsCache.get(period);
+
+        if (cachedStatistics.isPresent()) {
+            return cachedStatistics.get();
+        }
+
+        long cacheVersion = sellerStatisticsCache.version();
+        long queryStart = System.nanoTime();
+
+        Optional<List<SellerProjection>> aggregated = chunkedAggregator.appliesTo(period) ? chunkedAggregator.findSellerStatisticsByPeriod(period)
+                : sellerRollupService.findSellerStatisticsByPeriod(period);
+
+        List<SellerProjection> sales = aggregated.orElseThrow(() -> {
+
+        return new NoSuchElementException ("No selling found on the given period!");
+
+        });
+
+        recordStatisticsQuery(queryStart, sales);
+
+        List<SellerDTO> statistics = mapProjectionsToDTOs(sales, period.days());
+
+        sellerStatisticsCache.put(period, statistics, cacheVersion);
+
+        return statistics;
+    }
+
+    // Reads the rollups and the daily amount buckets directly: percentiles are an occasional ops query, so neither the engine nor the cache keeps them.
+    // One read-only transaction, so both reads see the same sales.
+    @Transactional(readOnly = true)
+    public List<SellerDTO> getSellerStatisticsWithPercentilesByPeriod(Instant startDate, Instant endDate) {
+
+        StatisticsPeriod period = resolvePeriod(startDate, endDate);
+
+        List<SellerProjection> sales = sellerRollupService.findSellerStatisticsByPeriod(period).orElseThrow(() -> {
+
+        return new NoSuchElementException ("No selling found on the given period!");
+
+        });
+
+        Map<Long, SalesAmountSketch> sketches = sellerRollupService.findAmountSketchesByPeriod(period);
+
+        return mapProjectionsToDTOs(sales, period.days(), sellerId -> {
+            SalesAmountSketch sketch = sketches.get(sellerId);
+            return sketch == null ? null : sketch.percentiles();
+        });
+    }
+
+    // JDBC is blocking, so the lookup runs on Reactor's bounded elastic pool and the request thread is released until the list is ready.
+    public Flux<SellerDTO> getSellerStatisticsFluxByPeriod(Instant startDate, Instant endDate) {
+
+        return Mono.fromCallable(() -> getSellerStatisticsByPeriod(startDate, endDate))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapIterable(x -> x);
+    }
+
+    // The page query and the seller name lookup share one read-only connection, with no flush or dirty checking at commit.
+    @Transactional(readOnly = true)
+    public SellerStatisticsPageDTO getSellerStatisticsPage(Instant startDate, Instant endDate, String sort, Integer limit, String cursor) {
+
+        StatisticsPeriod period = resolvePeriod(startDate, endDate);
+        SellerStatisticsSort statisticsSort = SellerStatisticsSort.fromParameter(sort);
+
+        if (limit != null && limit <= 0) {
+
+            throw new IllegalArgumentException("The limit must be greater than zero");
+        }
+
+        SellerStatisticsCursor after = cursor == null ? null : statisticsSort.decodeCursor(cursor);
+
+        long queryStart = System.nanoTime();
+        List<SellerProjection> sellers = sellerRollupService.findSellerStatisticsPage(period, statisticsSort, after, limit);
+        recordStatisticsQuery(queryStart, sellers);
+
+        String nextCursor = null;
+
+        if (limit != null && sellers.size() == limit) {
+            SellerProjection last = sellers.get(sellers.size() - 1);
+            nextCursor = new SellerStatisticsCursor(statisticsSort.cursorValue(last), last.sellerId()).encode();
+        }
+
+        Map<Long, String> sellerNames = sellerCache.names(sellers.stream().map(SellerProjection::sellerId).toList());
+
+        return new SellerStatisticsPageDTO(sellers.stream().map(x -> mapProjectionToDTO(x, sellerNames.get(x.sellerId()), period.days())).toList(),
+                nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public List<SellerTimeSeriesDTO> getSellerTimeSeriesByPeriod(Instant startDate, Instant endDate, String granularity, String zone) {
+
+        StatisticsGranularity statisticsGranularity = StatisticsGranularity.fromParameter(granularity);
+        ZoneId zoneId = resolveZone(zone);
+        StatisticsPeriod period = resolvePeriod(startDate, endDate, zoneId);
+
+        List<SellerDailySales> dailySales = saleRepository.findDailySellerSales(period.startDay().atStartOfDay(zoneId).toInstant(),
+                period.endDay().plusDays(1).atStartOfDay(zoneId).toInstant(), zoneId);
+
+        Map<Long, String> sellerNames = sellerCache.names(dailySales.stream().map(SellerDailySales::sellerId).distinct().toList());
+
+        return SellerTimeSeriesAssembler.assemble(dailySales, sellerNames, period, statisticsGranularity);
+    }
+
+    // Resolved before a response is streamed, so an invalid period is still answered with 400 rather than a broken 200.
+    public StatisticsPeriod resolveStatisticsPeriod(Instant startDate, Instant endDate) {
+
+        return resolvePeriod(startDate, endDate);
+    }
+
+    // Hands each seller to the consumer as the rows are fetched, so the caller can write them out without holding the whole result.
+    @Transactional(readOnly = true)
+    public void streamSellerStatisticsByPeriod(StatisticsPeriod period, Consumer<SellerDTO> consumer) {
+
+        try (Stream<SellerProjection> sellers = sellerRollupService.streamSellerStatisticsByPeriod(period)) {
+            sellers.map(x -> mapProjectionToDTO(x, sellerCache.name(x.sellerId()), period.days())).forEach(consumer);
+        }
+    }
+
+
+    public int rebuildSellerRollups() {
+
+        int rebuiltRows = sellerRollupService.rebuild();
+        sellerStatisticsCache.invalidateAll();
+        statisticsDataVersions.resetAll();
+        sellerStatisticsEngine.reload();
+
+        return rebuiltRows;
+    }
+
+
+    // Statistics are kept per UTC day, so the period (and the cache key) is normalized to whole days: start and end select
+    // the UTC days they fall on, both included, even when they are partial, and averageDailySales divides by that number of
+    // days. Sales before start or after end on those two days are therefore counted.
+    private StatisticsPeriod resolvePeriod(Instant startDate, Instant endDate) {
+
+        return resolvePeriod(startDate, endDate, DEFAULT_ZONE);
+    }
+
+    private StatisticsPeriod resolvePeriod(Instant startDate, Instant endDate, ZoneId zone) {
+
         if (endDate == null) {
             logger.info("Since you did not enter an end date, it will default to the standard value...");
             endDate = Instant.now();
             logger.info("Defaulted end date to {}", endDate);
         }
 
-        Long days = Duration.between(startDate, endDate).toDays() + 1;
+        StatisticsPeriod period = new StatisticsPeriod(LocalDate.ofInstant(startDate, zone), LocalDate.ofInstant(endDate, zone));
 
-        if (days <=0) {
+        if (period.days() <=0) {
 
             throw new ArithmeticException("Days must be greater than zero");
         }
 
-        List<SellerProjection> sales = saleRepository.findSellerStatisticsByPeriod(startDate, endDate, days).orElseThrow(() -> {
+        return period;
+    }
 
-        return new NoSuchElementException ("No selling found on the given period!");
+    private static ZoneId resolveZone(String zone) {
 
-        });
+        if (zone == null) {
+            return DEFAULT_ZONE;
+        }
+
+        try {
+            return ZoneId.of(zone);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid zone!", e);
+        }
+    }
 
-        return sales.stream().
-                map(x -> new SellerDTO(x.getSellerName(), x.getTotalSales(), x.getAverageSalesByDay()))
-                .collect(Collectors.toList());
+    private void recordStatisticsQuery(long queryStart, List<SellerProjection> sellers) {
+
+        long scannedRows = sellers.stream().mapToLong(SellerProjection::scannedRows).sum();
+        saleMetrics.recordStatisticsQuery(System.nanoTime() - queryStart, sellers.size(), scannedRows);
+    }
+
+    // Aggregates come back keyed by seller id; the names are resolved in one cache lookup and the list is ordered by name.
+    private List<SellerDTO> mapProjectionsToDTOs(List<SellerProjection> projections, long days) {
+
+        return mapProjectionsToDTOs(projections, days, sellerId -> null);
+    }
+
+    private List<SellerDTO> mapProjectionsToDTOs(List<SellerProjection> projections, long days, Function<Long, SellerAmountPercentilesDTO> percentiles) {
+
+        Map<Long, String> sellerNames = sellerCache.names(projections.stream().map(SellerProjection::sellerId).toList());
+
+        return projections.stream()
+                .map(x -> new SellerDTO(sellerNames.get(x.sellerId()), x.totalSales(), x.totalAmountCents(), days, percentiles.apply(x.sellerId())))
+                .sorted(Comparator.comparing(SellerDTO::sellerName, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
     }
 
+    private SellerDTO mapProjectionToDTO(SellerProjection projection, String sellerName, long days) {
+
+        return new SellerDTO(sellerName, projection.totalSales(), projection.totalAmountCents(), days);
+    }
+
+    List<String> validate(SaleDTO dto) {
+
+        if (dto == null) {
+            return List.of("You cannot send an empty sale!");
+        }
+
+        Set<ConstraintViolation<SaleDTO>> violations = validator.validate(dto);
+
+        return violations.stream().map(ConstraintViolation::getMessage).sorted().toList();
+    }
 
-    private void mapDTOToEntity(Sale entity, SaleDTO dto) {
+    void mapDTOToEntity(Sale entity, SaleDTO dto) {
 
         entity.setAmount(dto.amount());
         entity.setSellerId(dto.sellerId());
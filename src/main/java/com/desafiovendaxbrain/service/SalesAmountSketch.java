@@ -0,0 +1,74 @@
+package com.desafiovendaxbrain.service;
+
+import com.desafiovendaxbrain.dto.SellerAmountPercentilesDTO;
+import com.desafiovendaxbrain.model.SellerDailyAmountBucket;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Log-bucketed amount histogram (same idea as DDSketch): merging is adding counts, and quantiles carry at most 1% relative error.
+// Only non-empty buckets are kept, bounded by the ~1150 buckets an amount can fall into.
+public class SalesAmountSketch {
+
+    private final TreeMap<Integer, Long> counts = new TreeMap<>();
+    private long totalCount;
+
+    public void add(BigDecimal amount) {
+
+        add(SellerDailyAmountBucket.bucketOf(amount), 1);
+    }
+
+    public void add(int bucket, long count) {
+
+        counts.merge(bucket, count, Long::sum);
+        totalCount += count;
+    }
+
+    public void merge(SalesAmountSketch other) {
+
+        other.counts.forEach(this::add);
+    }
+
+    public long count() {
+
+        return totalCount;
+    }
+
+    public int buckets() {
+
+        return counts.size();
+    }
+
+    // Nearest rank over the sorted amounts: the bucket holding rank floor(q * (n - 1)), reported as the value closest to the whole bucket.
+    public BigDecimal quantile(double q) {
+
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("The quantile must be between 0 and 1!");
+        }
+
+        if (totalCount == 0) {
+            return null;
+        }
+
+        long rank = (long) Math.floor(q * (totalCount - 1));
+        long seen = 0;
+
+        for (Map.Entry<Integer, Long> bucket : counts.entrySet()) {
+
+            seen += bucket.getValue();
+
+            if (seen > rank) {
+                return BigDecimal.valueOf(Math.round(2 * Math.pow(SellerDailyAmountBucket.GAMMA, bucket.getKey()) / (SellerDailyAmountBucket.GAMMA + 1)), 2);
+            }
+        }
+
+        throw new IllegalStateException("The sketch counts are inconsistent!");
+    }
+
+    public SellerAmountPercentilesDTO percentiles() {
+
+        return new SellerAmountPercentilesDTO(quantile(0.5), quantile(0.95));
+    }
+
+}
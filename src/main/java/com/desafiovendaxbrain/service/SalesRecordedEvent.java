@@ -0,0 +1,17 @@
+package com.desafiovendaxbrain.service;
+
+import com.desafiovendaxbrain.model.Sale;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public record SalesRecordedEvent (List<Sale> sales) {
+
+    public Set<LocalDate> saleDays() {
+
+        return sales.stream().map(x -> SellerRollupService.toDay(x.getSaleDate())).collect(Collectors.toSet());
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.desafiovendaxbrain.service;
+
+import com.desafiovendaxbrain.model.Sale;
+import com.desafiovendaxbrain.model.Seller;
+import com.desafiovendaxbrain.repository.SellerRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+// Seller names by id. Aggregates group by the numeric seller id only and the names are attached here when the DTOs are
+// built, so neither tb_venda nor the rollups carry the name string.
+@Component
+public class SellerCache {
+
+    private final Cache<Long, String> names;
+    private final SellerRepository sellerRepository;
+
+    public SellerCache(@Value("${sales.seller-cache.maximum-size:100000}") long maximumSize,
+                       @Value("${sales.seller-cache.ttl:10m}") Duration ttl,
+                       SellerRepository sellerRepository) {
+        this.sellerRepository = sellerRepository;
+        this.names = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    // Missing sellers are loaded in one query; ids without a seller row are left out of the map.
+    public Map<Long, String> names(Collection<Long> sellerIds) {
+
+        return names.getAll(sellerIds, missing -> sellerRepository.findAllById(List.copyOf(missing)).stream()
+                .collect(Collectors.toMap(Seller::getId, Seller::getName)));
+    }
+
+    public String name(Long sellerId) {
+
+        return names(List.of(sellerId)).get(sellerId);
+    }
+
+    // Called inside the writing transaction. Only sellers that are new or renamed (as far as the cache knows) are written,
+    // and the cache takes the new names once the transaction commits.
+    public void record(List<Sale> sales) {
+
+        Map<Long, String> latest = new LinkedHashMap<>();
+
+        for (Sale sale : sales) {
+            latest.put(sale.getSellerId(), sale.getSellerName());
+        }
+
+        Map<Long, String> changed = new HashMap<>();
+
+        latest.forEach((sellerId, name) -> {
+            if (!Objects.equals(names.getIfPresent(sellerId), name)) {
+                sellerRepository.upsertName(sellerId, name);
+                changed.put(sellerId, name);
+            }
+        });
+
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            names.putAll(changed);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                names.putAll(changed);
+            }
+        });
+    }
+
+    public void bindTo(MeterRegistry meterRegistry) {
+
+        CaffeineCacheMetrics.monitor(meterRegistry, names, "sellers");
+    }
+
+}
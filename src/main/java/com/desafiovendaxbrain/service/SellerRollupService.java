@@ -0,0 +1,139 @@
+package com.desafiovendaxbrain.service;
+
+import com.desafiovendaxbrain.model.Sale;
+import com.desafiovendaxbrain.model.SellerDailyAmountBucket;
+import com.desafiovendaxbrain.model.SellerDailyRollup;
+import com.desafiovendaxbrain.repository.SellerDailyAmountBucketRepository;
+import com.desafiovendaxbrain.repository.SellerDailyRollupRepository;
+import com.desafiovendaxbrain.repository.projection.SellerAmountBucket;
+import com.desafiovendaxbrain.repository.projection.SellerProjection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Service
+public class SellerRollupService {
+
+    private final static Logger logger = LoggerFactory.getLogger(SellerRollupService.class);
+    // Sits above any reachable count or amount sum, so the first page goes through the same keyset query as the others.
+    private final static SellerStatisticsCursor FIRST_PAGE = new SellerStatisticsCursor(BigDecimal.valueOf(Long.MAX_VALUE), 0L);
+    private final SellerDailyRollupRepository rollupRepository;
+    private final SellerDailyAmountBucketRepository amountBucketRepository;
+    private final SellerStatisticsEngine sellerStatisticsEngine;
+    private final SellerCache sellerCache;
+
+    public SellerRollupService(SellerDailyRollupRepository rollupRepository, SellerDailyAmountBucketRepository amountBucketRepository,
+                               SellerStatisticsEngine sellerStatisticsEngine, SellerCache sellerCache) {
+        this.rollupRepository = rollupRepository;
+        this.amountBucketRepository = amountBucketRepository;
+        this.sellerStatisticsEngine = sellerStatisticsEngine;
+        this.sellerCache = sellerCache;
+    }
+
+    public static LocalDate toDay(Instant instant) {
+
+        return LocalDate.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    // Folds the sales into one increment per (seller, day) so a batch chunk touches each rollup row only once.
+    @Transactional
+    public void record(List<Sale> sales) {
+
+        sellerCache.record(sales);
+
+        Map<RollupKey, SellerDailyRollup> increments = new LinkedHashMap<>();
+        Map<AmountBucketKey, Long> bucketIncrements = new LinkedHashMap<>();
+
+        for (Sale sale : sales) {
+
+            SellerDailyRollup increment = increments.computeIfAbsent(new RollupKey(sale.getSellerId(), toDay(sale.getSaleDate())),
+                    key -> new SellerDailyRollup(key.sellerId(), key.day(), 0L, BigDecimal.ZERO));
+
+            increment.setSaleCount(increment.getSaleCount() + 1);
+            increment.setAmountSum(increment.getAmountSum().add(sale.getAmount()));
+
+            bucketIncrements.merge(new AmountBucketKey(sale.getSellerId(), toDay(sale.getSaleDate()), SellerDailyAmountBucket.bucketOf(sale.getAmount())),
+                    1L, Long::sum);
+        }
+
+        for (SellerDailyRollup increment : increments.values()) {
+            rollupRepository.addToRollup(increment.getSellerId(), increment.getDay(), increment.getSaleCount(), increment.getAmountSum());
+        }
+
+        bucketIncrements.forEach((key, saleCount) -> rollupRepository.addToAmountBucket(key.sellerId(), key.day(), key.bucket(), saleCount));
+
+        sellerStatisticsEngine.record(sales);
+    }
+
+    @Transactional
+    public int rebuild() {
+
+        int deleted = rollupRepository.deleteAllRollups();
+        int rebuilt = rollupRepository.rebuildFromSales();
+        amountBucketRepository.deleteAllBuckets();
+        int rebuiltBuckets = rollupRepository.rebuildAmountBucketsFromSales();
+        logger.info("Seller rollups rebuilt: {} rows removed, {} rows and {} amount buckets recomputed from sales", deleted, rebuilt, rebuiltBuckets);
+
+        return rebuilt;
+    }
+
+    // Read-only, so with replica routing enabled these queries run on the replica pool.
+    @Transactional(readOnly = true)
+    public Optional<List<SellerProjection>> findSellerStatisticsByPeriod(StatisticsPeriod period) {
+
+        return rollupRepository.findSellerStatisticsByPeriod(period.startDay(), period.endDay());
+    }
+
+    @Transactional(readOnly = true)
+    public List<SellerProjection> findSellerStatisticsPage(StatisticsPeriod period, SellerStatisticsSort sort, SellerStatisticsCursor after, Integer limit) {
+
+        Pageable page = limit == null ? Pageable.unpaged() : PageRequest.ofSize(limit);
+        SellerStatisticsCursor cursor = after == null ? FIRST_PAGE : after;
+
+        return switch (sort) {
+            case TOTAL_SALES -> rollupRepository.findSellerStatisticsPageByTotalSales(period.startDay(), period.endDay(),
+                    cursor.value().longValueExact(), cursor.sellerId(), page);
+            case AVERAGE_DAILY_SALES -> rollupRepository.findSellerStatisticsPageByTotalAmount(period.startDay(), period.endDay(),
+                    cursor.value(), cursor.sellerId(), page);
+        };
+    }
+
+    @Transactional(readOnly = true)
+    public Stream<SellerProjection> streamSellerStatisticsByPeriod(StatisticsPeriod period) {
+
+        return rollupRepository.streamSellerStatisticsByPeriod(period.startDay(), period.endDay());
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Long, SalesAmountSketch> findAmountSketchesByPeriod(StatisticsPeriod period) {
+
+        Map<Long, SalesAmountSketch> sketches = new HashMap<>();
+
+        for (SellerAmountBucket bucket : amountBucketRepository.findSellerAmountBucketsByPeriod(period.startDay(), period.endDay())) {
+            sketches.computeIfAbsent(bucket.sellerId(), x -> new SalesAmountSketch()).add(bucket.bucket(), bucket.saleCount());
+        }
+
+        return sketches;
+    }
+
+    private record AmountBucketKey(Long sellerId, LocalDate day, Integer bucket) {
+    }
+
+    private record RollupKey(Long sellerId, LocalDate day) {
+    }
+
+}
@@ -0,0 +1,147 @@
+package com.desafiovendaxbrain.service;
+
+import com.desafiovendaxbrain.dto.SellerDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class SellerStatisticsCache {
+
+    private final Cache<StatisticsPeriod, List<SellerDTO>> cache;
+    // Cached periods ordered by start day, so a write only checks the periods starting on or before its latest day, and the
+    // index holds one entry per cached period however long it is. An entry is indexed and unindexed inside the cache's own
+    // atomic operation on its key, so the index never misses a cached period.
+    private final NavigableSet<StatisticsPeriod> cachedPeriods = new TreeSet<>(Comparator.comparing(StatisticsPeriod::startDay)
+            .thenComparing(StatisticsPeriod::endDay));
+    private final AtomicLong invalidations = new AtomicLong();
+    private final long settleTimeNanos;
+    private volatile long lastInvalidationNanos;
+
+    public SellerStatisticsCache(@Value("${sales.statistics-cache.maximum-size:1000}") long maximumSize,
+                                 @Value("${sales.statistics-cache.ttl:5m}") Duration ttl,
+                                 @Value("${sales.statistics-cache.settle-time:0s}") Duration settleTime) {
+        this.settleTimeNanos = settleTime.toNanos();
+        this.lastInvalidationNanos = System.nanoTime() - settleTimeNanos;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .evictionListener((StatisticsPeriod period, List<SellerDTO> statistics, RemovalCause cause) -> unindex(period))
+                .recordStats()
+                .build();
+    }
+
+    public Optional<List<SellerDTO>> get(StatisticsPeriod period) {
+
+        return Optional.ofNullable(cache.getIfPresent(period));
+    }
+
+    // Callers read version() before querying and hand it back here; if a sale was committed in the meantime the
+    // result may already be stale, so it is not cached. The same goes for results read within the settle time of the
+    // last commit, which a lagging read replica may not have applied yet.
+    public void put(StatisticsPeriod period, List<SellerDTO> statistics, long version) {
+
+        cache.asMap().compute(period, (key, previous) -> {
+            index(key);
+            return statistics;
+        });
+
+        if (invalidations.get() != version || System.nanoTime() - lastInvalidationNanos < settleTimeNanos) {
+            invalidate(period);
+        }
+    }
+
+    public long version() {
+
+        return invalidations.get();
+    }
+
+    public CacheStats stats() {
+
+        return cache.stats();
+    }
+
+    public long size() {
+
+        return cache.estimatedSize();
+    }
+
+    public void bindTo(MeterRegistry meterRegistry) {
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "seller-statistics");
+    }
+
+    @TransactionalEventListener
+    public void onSalesRecorded(SalesRecordedEvent event) {
+
+        invalidate(event.saleDays());
+    }
+
+    public void invalidateAll() {
+
+        invalidations.incrementAndGet();
+        lastInvalidationNanos = System.nanoTime();
+        cache.asMap().keySet().forEach(this::invalidate);
+    }
+
+    public void invalidate(Set<LocalDate> saleDays) {
+
+        invalidations.incrementAndGet();
+        lastInvalidationNanos = System.nanoTime();
+
+        if (saleDays.isEmpty()) {
+            return;
+        }
+
+        LocalDate lastDay = Collections.max(saleDays);
+        List<StatisticsPeriod> periods;
+
+        synchronized (cachedPeriods) {
+            periods = cachedPeriods.headSet(new StatisticsPeriod(lastDay, LocalDate.MAX), true).stream()
+                    .filter(period -> saleDays.stream().anyMatch(day -> !day.isBefore(period.startDay()) && !day.isAfter(period.endDay())))
+                    .toList();
+        }
+
+        periods.forEach(this::invalidate);
+    }
+
+    private void invalidate(StatisticsPeriod period) {
+
+        cache.asMap().computeIfPresent(period, (key, statistics) -> {
+            unindex(key);
+            return null;
+        });
+    }
+
+    private void index(StatisticsPeriod period) {
+
+        synchronized (cachedPeriods) {
+            cachedPeriods.add(period);
+        }
+    }
+
+    private void unindex(StatisticsPeriod period) {
+
+        synchronized (cachedPeriods) {
+            cachedPeriods.remove(period);
+        }
+    }
+
+}
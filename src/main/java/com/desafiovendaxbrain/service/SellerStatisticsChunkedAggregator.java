@@ -0,0 +1,108 @@
+package com.desafiovendaxbrain.service;
+
+import com.desafiovendaxbrain.repository.projection.SellerProjection;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Splits long periods into contiguous day ranges, aggregates each one in its own read-only query and merges the per-seller partial sums.
+@Component
+public class SellerStatisticsChunkedAggregator {
+
+    private final SellerRollupService sellerRollupService;
+    private final boolean enabled;
+    private final long minDays;
+    private final int chunks;
+    private final ExecutorService executor;
+
+    public SellerStatisticsChunkedAggregator(SellerRollupService sellerRollupService,
+                                             @Value("${sales.statistics-chunking.enabled:true}") boolean enabled,
+                                             @Value("${sales.statistics-chunking.min-days:1096}") long minDays,
+                                             @Value("${sales.statistics-chunking.chunks:4}") int chunks,
+                                             @Value("${sales.statistics-chunking.parallelism:4}") int parallelism) {
+        this.sellerRollupService = sellerRollupService;
+        this.enabled = enabled;
+        this.minDays = minDays;
+        this.chunks = chunks;
+        this.executor = Executors.newFixedThreadPool(parallelism, Thread.ofPlatform().name("statistics-chunk-", 0).factory());
+    }
+
+    // Below the cutoff one GROUP BY is cheaper than paying for several connections and the merge.
+    public boolean appliesTo(StatisticsPeriod period) {
+
+        return enabled && chunks > 1 && period.days() >= minDays;
+    }
+
+    public Optional<List<SellerProjection>> findSellerStatisticsByPeriod(StatisticsPeriod period) {
+
+        List<Future<Optional<List<SellerProjection>>>> partials = new ArrayList<>(chunks);
+
+        for (StatisticsPeriod chunk : split(period)) {
+            partials.add(executor.submit(() -> sellerRollupService.findSellerStatisticsByPeriod(chunk)));
+        }
+
+        Map<Long, SellerProjection> merged = new TreeMap<>();
+
+        for (Future<Optional<List<SellerProjection>>> partial : partials) {
+            for (SellerProjection seller : await(partial).orElse(List.of())) {
+                merged.merge(seller.sellerId(), seller, SellerStatisticsChunkedAggregator::add);
+            }
+        }
+
+        return Optional.of(new ArrayList<>(merged.values()));
+    }
+
+    List<StatisticsPeriod> split(StatisticsPeriod period) {
+
+        long days = period.days();
+        long chunkDays = (days + chunks - 1) / chunks;
+        List<StatisticsPeriod> ranges = new ArrayList<>(chunks);
+
+        for (LocalDate start = period.startDay(); !start.isAfter(period.endDay()); start = start.plusDays(chunkDays)) {
+
+            LocalDate end = start.plusDays(chunkDays - 1);
+            ranges.add(new StatisticsPeriod(start, end.isAfter(period.endDay()) ? period.endDay() : end));
+        }
+
+        return ranges;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+
+        executor.shutdownNow();
+    }
+
+    private static SellerProjection add(SellerProjection first, SellerProjection second) {
+
+        return new SellerProjection(first.sellerId(), first.totalSales() + second.totalSales(),
+                first.totalAmountCents() + second.totalAmountCents(), first.scannedRows() + second.scannedRows());
+    }
+
+    private static <T> T await(Future<T> partial) {
+
+        try {
+            return partial.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while aggregating the statistics chunks", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+}
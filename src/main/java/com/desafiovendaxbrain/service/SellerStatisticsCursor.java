@@ -0,0 +1,28 @@
+package com.desafiovendaxbrain.service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public record SellerStatisticsCursor (BigDecimal value, Long sellerId) {
+
+    private final static String SEPARATOR = ":";
+
+    public static SellerStatisticsCursor decode(String cursor) {
+
+        String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARATOR);
+
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid cursor!");
+        }
+
+        return new SellerStatisticsCursor(new BigDecimal(parts[0]), Long.valueOf(parts[1]));
+    }
+
+    public String encode() {
+
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((value.toPlainString() + SEPARATOR + sellerId).getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,392 @@
+package com.desafiovendaxbrain.service;
+
+import com.desafiovendaxbrain.model.Sale;
+import com.desafiovendaxbrain.repository.SellerDailyRollupRepository;
+import com.desafiovendaxbrain.repository.projection.SellerDailySales;
+import com.desafiovendaxbrain.repository.projection.SellerProjection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// In-memory mirror of the daily rollups for the last retention-days UTC days. Each seller keeps one Fenwick tree (prefix sums
+// with O(log days) updates) of counts and one of amounts in cents, so a period is answered in O(sellers) range sums without
+// touching the database. Periods reaching outside the window are left to the SQL path.
+@Component
+public class SellerStatisticsEngine implements SmartLifecycle {
+
+    private final static Logger logger = LoggerFactory.getLogger(SellerStatisticsEngine.class);
+    // Starts before the write-behind queue and the web server, so no sale is committed while the window is being loaded
+    private final static int PHASE = SmartLifecycle.DEFAULT_PHASE - 8192;
+    // Days kept ahead of today, so the window only slides once a month
+    private final static int HEADROOM_DAYS = 32;
+
+    private final boolean enabled;
+    private final int retentionDays;
+    private final SellerDailyRollupRepository rollupRepository;
+    private final TransactionTemplate loadTransaction;
+    // Writers hold the read side from their rollup update until after commit and reload takes the write side, so a reload
+    // neither misses a committed sale nor sees one that is applied again afterwards.
+    private final ReentrantReadWriteLock commitLock = new ReentrantReadWriteLock();
+    private final ReentrantReadWriteLock stateLock = new ReentrantReadWriteLock();
+    private Window window;
+    private volatile boolean running;
+
+    public SellerStatisticsEngine(@Value("${sales.statistics-engine.enabled:true}") boolean enabled,
+                                  @Value("${sales.statistics-engine.retention-days:90}") int retentionDays,
+                                  SellerDailyRollupRepository rollupRepository, PlatformTransactionManager transactionManager) {
+        this.enabled = enabled;
+        this.retentionDays = retentionDays;
+        this.rollupRepository = rollupRepository;
+        // Deliberately not read-only: with replica routing the load must see every commit the lock waited for, which only
+        // the primary guarantees.
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    // Same shape as the rollup query, with no rows scanned; the caller attaches the seller names.
+    public Optional<List<SellerProjection>> findSellerStatisticsByPeriod(StatisticsPeriod period) {
+
+        if (!running) {
+            return Optional.empty();
+        }
+
+        stateLock.readLock().lock();
+
+        try {
+            return Optional.ofNullable(window).filter(x -> x.covers(period)).map(x -> x.statistics(period));
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    // Called inside the writing transaction; the increments are applied only once it commits.
+    public void record(List<Sale> sales) {
+
+        if (!running) {
+            return;
+        }
+
+        List<SellerDailySales> increments = fold(sales);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(increments);
+            return;
+        }
+
+        commitLock.readLock().lock();
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        apply(increments);
+                    }
+                } finally {
+                    commitLock.readLock().unlock();
+                }
+            }
+        });
+    }
+
+    // Streams the rollups of the retained window into a fresh window and swaps it in.
+    public void reload() {
+
+        if (!enabled) {
+            return;
+        }
+
+        commitLock.writeLock().lock();
+
+        try {
+            LocalDate originDay = LocalDate.now(ZoneOffset.UTC).minusDays(retentionDays - 1);
+            Window loaded = new Window(originDay, retentionDays + HEADROOM_DAYS);
+
+            loadTransaction.executeWithoutResult(status -> {
+                try (Stream<SellerDailySales> dailySales = rollupRepository.streamDailySalesFrom(originDay)) {
+                    dailySales.forEach(loaded::load);
+                }
+            });
+
+            loaded.build();
+            replaceWindow(loaded);
+
+            logger.info("Seller statistics engine loaded {} daily rows for {} sellers from {}", loaded.loadedRows, loaded.sellers.size(), originDay);
+        } finally {
+            commitLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+
+        reload();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+
+        return enabled;
+    }
+
+    @Override
+    public int getPhase() {
+
+        return PHASE;
+    }
+
+    private void replaceWindow(Window loaded) {
+
+        stateLock.writeLock().lock();
+
+        try {
+            window = loaded;
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    private void apply(List<SellerDailySales> increments) {
+
+        stateLock.writeLock().lock();
+
+        try {
+            for (SellerDailySales increment : increments) {
+
+                if (window.isPastEnd(increment.day())) {
+                    window.slideTo(LocalDate.now(ZoneOffset.UTC).minusDays(retentionDays - 1));
+                }
+
+                window.add(increment);
+            }
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    private static List<SellerDailySales> fold(List<Sale> sales) {
+
+        Map<SellerDay, SellerDailySales> increments = new LinkedHashMap<>();
+
+        for (Sale sale : sales) {
+
+            increments.merge(new SellerDay(sale.getSellerId(), SellerRollupService.toDay(sale.getSaleDate())),
+                    new SellerDailySales(sale.getSellerId(), SellerRollupService.toDay(sale.getSaleDate()), 1L, sale.getAmount()),
+                    (current, added) -> new SellerDailySales(current.sellerId(), current.day(),
+                            current.totalSales() + added.totalSales(), current.totalAmount().add(added.totalAmount())));
+        }
+
+        return List.copyOf(increments.values());
+    }
+
+    private static long toCents(BigDecimal amount) {
+
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private record SellerDay(Long sellerId, LocalDate day) {
+    }
+
+    private static final class Window {
+
+        private LocalDate originDay;
+        private final int capacity;
+        private final Map<Long, SellerSeries> sellers = new HashMap<>();
+        private long loadedRows;
+
+        private Window(LocalDate originDay, int capacity) {
+            this.originDay = originDay;
+            this.capacity = capacity;
+        }
+
+        private boolean covers(StatisticsPeriod period) {
+
+            return !period.startDay().isBefore(originDay) && period.endDay().isBefore(originDay.plusDays(capacity));
+        }
+
+        private boolean isPastEnd(LocalDate day) {
+
+            return !day.isBefore(originDay.plusDays(capacity));
+        }
+
+        // Warm-up writes plain per-day values; build() turns them into prefix-sum trees once the stream is done.
+        private void load(SellerDailySales dailySales) {
+
+            int index = (int) ChronoUnit.DAYS.between(originDay, dailySales.day());
+
+            if (index < 0 || index >= capacity) {
+                return;
+            }
+
+            SellerSeries seller = sellers.computeIfAbsent(dailySales.sellerId(), x -> new SellerSeries(capacity));
+            loadedRows++;
+            seller.counts[index + 1] += dailySales.totalSales();
+            seller.amountCents[index + 1] += toCents(dailySales.totalAmount());
+        }
+
+        private void build() {
+
+            sellers.values().forEach(SellerSeries::build);
+        }
+
+        private void add(SellerDailySales increment) {
+
+            int index = (int) ChronoUnit.DAYS.between(originDay, increment.day());
+
+            if (index < 0 || index >= capacity) {
+                return;
+            }
+
+            SellerSeries seller = sellers.computeIfAbsent(increment.sellerId(), x -> new SellerSeries(capacity));
+            seller.add(index, increment.totalSales(), toCents(increment.totalAmount()));
+        }
+
+        private void slideTo(LocalDate newOriginDay) {
+
+            int shift = (int) ChronoUnit.DAYS.between(originDay, newOriginDay);
+
+            if (shift <= 0) {
+                return;
+            }
+
+            originDay = newOriginDay;
+            sellers.values().removeIf(seller -> !seller.shift(shift));
+        }
+
+        private List<SellerProjection> statistics(StatisticsPeriod period) {
+
+            int from = (int) ChronoUnit.DAYS.between(originDay, period.startDay());
+            int to = (int) ChronoUnit.DAYS.between(originDay, period.endDay());
+            List<SellerProjection> statistics = new ArrayList<>();
+
+            sellers.forEach((sellerId, seller) -> {
+
+                long totalSales = SellerSeries.rangeSum(seller.counts, from, to);
+
+                if (totalSales > 0) {
+                    statistics.add(new SellerProjection(sellerId, totalSales, SellerSeries.rangeSum(seller.amountCents, from, to), 0L));
+                }
+            });
+
+            return List.copyOf(statistics);
+        }
+    }
+
+    // Fenwick trees, 1-based: position i + 1 holds day i of the window.
+    private static final class SellerSeries {
+
+        private final long[] counts;
+        private final long[] amountCents;
+
+        private SellerSeries(int capacity) {
+            this.counts = new long[capacity + 1];
+            this.amountCents = new long[capacity + 1];
+        }
+
+        private void add(int index, long count, long cents) {
+
+            for (int i = index + 1; i < counts.length; i += i & -i) {
+                counts[i] += count;
+                amountCents[i] += cents;
+            }
+        }
+
+        private void build() {
+
+            toTree(counts);
+            toTree(amountCents);
+        }
+
+        // Drops the first shift days; returns false when nothing is left in the window.
+        private boolean shift(int shift) {
+
+            boolean hasSales = false;
+
+            for (long[] tree : List.of(counts, amountCents)) {
+
+                toValues(tree);
+                int kept = Math.max(tree.length - 1 - shift, 0);
+                System.arraycopy(tree, 1 + Math.min(shift, tree.length - 1), tree, 1, kept);
+                Arrays.fill(tree, 1 + kept, tree.length, 0L);
+
+                for (int i = 1; i <= kept && !hasSales; i++) {
+                    hasSales = tree[i] != 0;
+                }
+
+                toTree(tree);
+            }
+
+            return hasSales;
+        }
+
+        private static long rangeSum(long[] tree, int from, int to) {
+
+            return prefixSum(tree, to) - prefixSum(tree, from - 1);
+        }
+
+        private static long prefixSum(long[] tree, int index) {
+
+            long sum = 0;
+
+            for (int i = index + 1; i > 0; i -= i & -i) {
+                sum += tree[i];
+            }
+
+            return sum;
+        }
+
+        private static void toTree(long[] values) {
+
+            for (int i = 1; i < values.length; i++) {
+                int parent = i + (i & -i);
+                if (parent < values.length) {
+                    values[parent] += values[i];
+                }
+            }
+        }
+
+        private static void toValues(long[] tree) {
+
+            for (int i = tree.length - 1; i > 0; i--) {
+                int parent = i + (i & -i);
+                if (parent < tree.length) {
+                    tree[parent] -= tree[i];
+                }
+            }
+        }
+    }
+
+}
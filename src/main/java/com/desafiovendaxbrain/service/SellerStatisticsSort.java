@@ -0,0 +1,52 @@
+package com.desafiovendaxbrain.service;
+
+import com.desafiovendaxbrain.repository.projection.SellerProjection;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+public enum SellerStatisticsSort {
+
+    TOTAL_SALES("totalSales"),
+    AVERAGE_DAILY_SALES("averageDailySales");
+
+    private final String parameter;
+
+    SellerStatisticsSort(String parameter) {
+        this.parameter = parameter;
+    }
+
+    public static SellerStatisticsSort fromParameter(String parameter) {
+
+        if (parameter == null) {
+            return TOTAL_SALES;
+        }
+
+        return Arrays.stream(values()).filter(x -> x.parameter.equals(parameter)).findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("You can only sort by totalSales or averageDailySales!"));
+    }
+
+    // A totalSales cursor carries a sale count, so a fractional or out of range value can't have come from encode().
+    public SellerStatisticsCursor decodeCursor(String cursor) {
+
+        SellerStatisticsCursor decoded = SellerStatisticsCursor.decode(cursor);
+
+        if (this == TOTAL_SALES) {
+            try {
+                decoded.value().longValueExact();
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Invalid cursor!", e);
+            }
+        }
+
+        return decoded;
+    }
+
+    // The average is the amount sum divided by the same number of days for every seller, so paging on the exact
+    // sum keeps the cursor free of the rounding in averageDailySales.
+    public BigDecimal cursorValue(SellerProjection seller) {
+
+        return this == TOTAL_SALES ? BigDecimal.valueOf(seller.totalSales()) : BigDecimal.valueOf(seller.totalAmountCents(), 2);
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.desafiovendaxbrain.service;
+
+import com.desafiovendaxbrain.dto.SalesBucketDTO;
+import com.desafiovendaxbrain.dto.SellerTimeSeriesDTO;
+import com.desafiovendaxbrain.repository.projection.SellerDailySales;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Folds per-seller local-day rows into day/week/month buckets. The average of each bucket divides by the days the bucket
+// shares with the requested period, so partial first and last weeks/months are not diluted.
+final class SellerTimeSeriesAssembler {
+
+    private SellerTimeSeriesAssembler() {
+    }
+
+    static List<SellerTimeSeriesDTO> assemble(List<SellerDailySales> dailySales, Map<Long, String> sellerNames, StatisticsPeriod period,
+                                              StatisticsGranularity granularity) {
+
+        Map<Long, SellerBuckets> sellers = new LinkedHashMap<>();
+
+        for (SellerDailySales day : dailySales) {
+
+            SellerBuckets seller = sellers.computeIfAbsent(day.sellerId(), SellerBuckets::new);
+            seller.sellerName = sellerNames.get(day.sellerId());
+            seller.add(granularity.bucketStart(day.day()), day.totalSales(), day.totalAmount());
+        }
+
+        return sellers.values().stream().map(x -> x.toDTO(period, granularity)).toList();
+    }
+
+    private static final class SellerBuckets {
+
+        private final Long sellerId;
+        private final TreeMap<LocalDate, Bucket> buckets = new TreeMap<>();
+        private String sellerName;
+
+        private SellerBuckets(Long sellerId) {
+            this.sellerId = sellerId;
+        }
+
+        private void add(LocalDate bucketStart, long totalSales, BigDecimal totalAmount) {
+
+            Bucket bucket = buckets.computeIfAbsent(bucketStart, x -> new Bucket());
+            bucket.totalSales += totalSales;
+            bucket.totalAmount = bucket.totalAmount.add(totalAmount);
+        }
+
+        private SellerTimeSeriesDTO toDTO(StatisticsPeriod period, StatisticsGranularity granularity) {
+
+            List<SalesBucketDTO> series = buckets.entrySet().stream().map(entry -> {
+
+                LocalDate first = entry.getKey().isBefore(period.startDay()) ? period.startDay() : entry.getKey();
+                LocalDate lastInBucket = granularity.nextBucketStart(entry.getKey()).minusDays(1);
+                LocalDate last = lastInBucket.isAfter(period.endDay()) ? period.endDay() : lastInBucket;
+                long days = ChronoUnit.DAYS.between(first, last) + 1;
+
+                Bucket bucket = entry.getValue();
+
+                return new SalesBucketDTO(entry.getKey(), bucket.totalSales,
+                        bucket.totalAmount.divide(BigDecimal.valueOf(days), 2, RoundingMode.HALF_EVEN));
+            }).toList();
+
+            return new SellerTimeSeriesDTO(sellerId, sellerName, series);
+        }
+    }
+
+    private static final class Bucket {
+
+        private long totalSales;
+        private BigDecimal totalAmount = BigDecimal.ZERO;
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.desafiovendaxbrain.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Per UTC sale day, the time of the last commit that wrote a sale for it; the newest one within a period is that period's
+// version, behind its ETag. Days untouched since startup (or the last rebuild) report the baseline, so a restart changes every
+// validator once instead of vouching for data this instance never saw being written.
+@Component
+public class StatisticsDataVersions {
+
+    private final ConcurrentSkipListMap<LocalDate, Long> dayVersions = new ConcurrentSkipListMap<>();
+    // Versions are epoch millis, bumped by at least one per write so two commits in the same millisecond still differ.
+    private final AtomicLong lastVersion = new AtomicLong();
+    private volatile long baseline = nextVersion();
+    private final long settleTimeMillis;
+
+    // Same settle time as the statistics cache: a read replica may not have applied a commit yet, so a version that recent
+    // must not be pinned to a response with a validator.
+    public StatisticsDataVersions(@Value("${sales.statistics-cache.settle-time:0s}") Duration settleTime) {
+        this.settleTimeMillis = settleTime.toMillis();
+    }
+
+    @TransactionalEventListener
+    public void onSalesRecorded(SalesRecordedEvent event) {
+
+        record(event.saleDays());
+    }
+
+    public void record(Set<LocalDate> days) {
+
+        long version = nextVersion();
+        days.forEach(day -> dayVersions.merge(day, version, Math::max));
+    }
+
+    public void resetAll() {
+
+        baseline = nextVersion();
+        dayVersions.clear();
+    }
+
+    public long version(StatisticsPeriod period) {
+
+        long periodVersion = baseline;
+
+        for (long version : dayVersions.subMap(period.startDay(), true, period.endDay(), true).values()) {
+            periodVersion = Math.max(periodVersion, version);
+        }
+
+        return periodVersion;
+    }
+
+    public boolean isSettled(long version) {
+
+        return System.currentTimeMillis() - version >= settleTimeMillis;
+    }
+
+    private long nextVersion() {
+
+        return lastVersion.updateAndGet(x -> Math.max(x + 1, System.currentTimeMillis()));
+    }
+
+}
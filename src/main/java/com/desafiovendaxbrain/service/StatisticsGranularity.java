@@ -0,0 +1,45 @@
+package com.desafiovendaxbrain.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+
+public enum StatisticsGranularity {
+
+    DAY("day"),
+    WEEK("week"),
+    MONTH("month");
+
+    private final String parameter;
+
+    StatisticsGranularity(String parameter) {
+        this.parameter = parameter;
+    }
+
+    public static StatisticsGranularity fromParameter(String parameter) {
+
+        return Arrays.stream(values()).filter(x -> x.parameter.equals(parameter)).findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("The granularity must be day, week or month!"));
+    }
+
+    // Weeks start on Monday (ISO-8601)
+    public LocalDate bucketStart(LocalDate day) {
+
+        return switch (this) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    public LocalDate nextBucketStart(LocalDate bucketStart) {
+
+        return switch (this) {
+            case DAY -> bucketStart.plusDays(1);
+            case WEEK -> bucketStart.plusWeeks(1);
+            case MONTH -> bucketStart.plusMonths(1);
+        };
+    }
+
+}
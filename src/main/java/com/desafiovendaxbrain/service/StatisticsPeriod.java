@@ -0,0 +1,18 @@
+package com.desafiovendaxbrain.service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+public record StatisticsPeriod (LocalDate startDay, LocalDate endDay) {
+
+    public long days() {
+
+        return ChronoUnit.DAYS.between(startDay, endDay) + 1;
+    }
+
+    public boolean covers(LocalDate day) {
+
+        return !day.isBefore(startDay) && !day.isAfter(endDay);
+    }
+
+}
@@ -0,0 +1,45 @@
+-- Baseline of the schema Hibernate generates for the entities; only applied by the durable profile (ddl-auto: validate).
+-- Archived month tables (tb_venda_YYYY_MM) are created at runtime by the archive job and are not part of the migrations.
+
+CREATE SEQUENCE tb_venda_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE tb_venda (
+    id BIGINT NOT NULL PRIMARY KEY,
+    sale_date TIMESTAMP(6) WITH TIME ZONE,
+    amount NUMERIC(10, 2),
+    seller_id BIGINT,
+    idempotency_key VARCHAR(100)
+);
+
+CREATE INDEX idx_venda_data_vendedor_valor ON tb_venda (sale_date, seller_id, amount);
+CREATE UNIQUE INDEX idx_venda_chave_idempotencia ON tb_venda (idempotency_key);
+
+CREATE TABLE tb_vendedor (
+    id BIGINT NOT NULL PRIMARY KEY,
+    name VARCHAR(100) NOT NULL
+);
+
+CREATE TABLE tb_vendedor_resumo_diario (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    seller_id BIGINT NOT NULL,
+    sale_day DATE NOT NULL,
+    sale_count BIGINT,
+    amount_sum NUMERIC(19, 2),
+    CONSTRAINT uk_vendedor_resumo_diario UNIQUE (sale_day, seller_id)
+);
+
+CREATE TABLE tb_vendedor_faixa_valor_diaria (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    seller_id BIGINT NOT NULL,
+    sale_day DATE NOT NULL,
+    bucket INTEGER NOT NULL,
+    sale_count BIGINT,
+    CONSTRAINT uk_vendedor_faixa_valor_diaria UNIQUE (sale_day, seller_id, bucket)
+);
+
+CREATE TABLE tb_venda_particao (
+    partition_month DATE NOT NULL PRIMARY KEY,
+    table_name VARCHAR(30) NOT NULL,
+    archived_rows BIGINT,
+    archived_at TIMESTAMP(6) WITH TIME ZONE
+);
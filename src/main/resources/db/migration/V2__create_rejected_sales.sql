@@ -0,0 +1,12 @@
+-- Dead letter of the write-behind queue (RejectedSale).
+
+CREATE TABLE tb_venda_rejeitada (
+    id BIGINT NOT NULL PRIMARY KEY,
+    sale_date TIMESTAMP(6) WITH TIME ZONE,
+    amount NUMERIC(10, 2),
+    seller_id BIGINT,
+    seller_name VARCHAR(100),
+    idempotency_key VARCHAR(100),
+    reason VARCHAR(500),
+    rejected_at TIMESTAMP(6) WITH TIME ZONE
+);
@@ -0,0 +1,47 @@
+package com.desafiovendaxbrain.benchmark;
+
+import com.desafiovendaxbrain.dto.SaleDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+@State (Scope.Benchmark)
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.NANOSECONDS)
+@Fork (1)
+@Warmup (iterations = 3, time = 2)
+@Measurement (iterations = 5, time = 2)
+public class SaleJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private SaleDTO sale;
+    private byte[] saleJson;
+
+    @Setup
+    public void setup() throws IOException {
+
+        // Mirrors the mapper Spring Boot builds for MVC: java.time module registered, dates written as ISO-8601
+        objectMapper = Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        sale = new SaleDTO(1L, Instant.parse("2025-10-20T10:30:00Z"), BigDecimal.valueOf(1500.00), 1L, "Pedrinho");
+        saleJson = objectMapper.writeValueAsBytes(sale);
+    }
+
+    @Benchmark
+    public byte[] serializeSale() throws IOException {
+
+        return objectMapper.writeValueAsBytes(sale);
+    }
+
+    @Benchmark
+    public SaleDTO deserializeSale() throws IOException {
+
+        return objectMapper.readValue(saleJson, SaleDTO.class);
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.desafiovendaxbrain.benchmark;
+
+import com.desafiovendaxbrain.SaleChallengeXBrainApplication;
+import com.desafiovendaxbrain.dto.SaleDTO;
+import com.desafiovendaxbrain.dto.SellerDTO;
+import com.desafiovendaxbrain.service.SaleService;
+import com.desafiovendaxbrain.utils.SaleDTOFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The dataset is loaded once per trial through the batch path; the 10M run needs several minutes and a large heap.
+@State (Scope.Benchmark)
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.MICROSECONDS)
+@Fork (value = 1, jvmArgsAppend = "-Xmx8g")
+@Warmup (iterations = 3, time = 5)
+@Measurement (iterations = 5, time = 5)
+public class SaleServiceBenchmark {
+
+    private final static int SELLERS = 1_000;
+    private final static long SEED = 42L;
+    private final static Instant START = Instant.parse("2025-01-01T00:00:00Z");
+    private final static Instant END = Instant.parse("2025-09-30T23:59:59Z");
+
+    @Param ({"10000", "1000000", "10000000"})
+    private long datasetSize;
+
+    private ConfigurableApplicationContext context;
+    private SaleService saleService;
+    private SaleDTO sale;
+
+    @Setup (Level.Trial)
+    public void setup() {
+
+        context = new SpringApplicationBuilder(SaleChallengeXBrainApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.jpa.show-sql=false", "logging.level.root=WARN", "sales.statistics-cache.maximum-size=0",
+                        "sales.statistics-engine.enabled=false")
+                .run();
+        saleService = context.getBean(SaleService.class);
+        saleService.createSales(SaleDTOFactory.getSyntheticValidDTOs(datasetSize, SELLERS, SEED));
+
+        sale = new SaleDTO(null, Instant.parse("2025-09-15T10:30:00Z"), BigDecimal.valueOf(1500.00), 1L, "Seller 1");
+    }
+
+    @TearDown (Level.Trial)
+    public void tearDown() {
+
+        context.close();
+    }
+
+    @Benchmark
+    public SaleDTO createSale() {
+
+        return saleService.createSale(sale);
+    }
+
+    @Benchmark
+    public List<SellerDTO> getSellerStatisticsByPeriod() {
+
+        return saleService.getSellerStatisticsByPeriod(START, END);
+    }
+
+}
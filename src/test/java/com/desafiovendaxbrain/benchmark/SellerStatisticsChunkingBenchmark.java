@@ -0,0 +1,71 @@
+package com.desafiovendaxbrain.benchmark;
+
+import com.desafiovendaxbrain.SaleChallengeXBrainApplication;
+import com.desafiovendaxbrain.dto.SellerDTO;
+import com.desafiovendaxbrain.service.SaleService;
+import com.desafiovendaxbrain.utils.SaleDTOFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Compares the single GROUP BY with the chunked aggregation over growing periods of three synthetic years to find the crossover for min-days.
+@State (Scope.Benchmark)
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.MICROSECONDS)
+@Fork (value = 1, jvmArgsAppend = "-Xmx8g")
+@Warmup (iterations = 3, time = 5)
+@Measurement (iterations = 5, time = 5)
+public class SellerStatisticsChunkingBenchmark {
+
+    private final static int SELLERS = 1_000;
+    private final static long SEED = 42L;
+    private final static long DATASET_DAYS = 1095;
+    private final static Instant END = Instant.parse("2025-09-30T23:59:59Z");
+
+    @Param ({"10000000"})
+    private long datasetSize;
+
+    @Param ({"30", "90", "180", "365", "540", "730", "1095"})
+    private long periodDays;
+
+    @Param ({"1", "4", "8"})
+    private int chunks;
+
+    private ConfigurableApplicationContext context;
+    private SaleService saleService;
+    private Instant start;
+
+    @Setup (Level.Trial)
+    public void setup() {
+
+        context = new SpringApplicationBuilder(SaleChallengeXBrainApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.jpa.show-sql=false", "logging.level.root=WARN", "sales.statistics-cache.maximum-size=0",
+                        "sales.statistics-engine.enabled=false", "sales.statistics-chunking.min-days=1",
+                        "sales.statistics-chunking.chunks=" + chunks, "sales.statistics-chunking.parallelism=" + chunks)
+                .run();
+        saleService = context.getBean(SaleService.class);
+        saleService.createSales(SaleDTOFactory.getSyntheticValidDTOs(datasetSize, SELLERS, SEED, DATASET_DAYS));
+
+        start = END.minus(periodDays - 1, ChronoUnit.DAYS);
+    }
+
+    @TearDown (Level.Trial)
+    public void tearDown() {
+
+        context.close();
+    }
+
+    @Benchmark
+    public List<SellerDTO> getSellerStatisticsByPeriod() {
+
+        return saleService.getSellerStatisticsByPeriod(start, END);
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.desafiovendaxbrain.benchmark;
+
+import com.desafiovendaxbrain.dto.SellerDTO;
+import com.desafiovendaxbrain.repository.projection.SellerProjection;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+// Run with -prof gc and compare gc.alloc.rate.norm: doubleAverage replays the previous mapping, where every row divided a
+// BigDecimal sum into a Double, against the cents-only DTO whose average is computed while the JSON is written.
+@State (Scope.Benchmark)
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.MICROSECONDS)
+@Fork (1)
+@Warmup (iterations = 3, time = 2)
+@Measurement (iterations = 5, time = 2)
+public class SellerStatisticsMappingBenchmark {
+
+    private final static long DAYS = 30;
+
+    @Param ({"1000"})
+    private int sellers;
+
+    private ObjectMapper objectMapper;
+    private List<SellerProjection> rows;
+    private Map<Long, String> sellerNames;
+
+    @Setup
+    public void setup() {
+
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        Random random = new Random(42);
+        rows = LongStream.rangeClosed(1, sellers)
+                .mapToObj(id -> new SellerProjection(id, (long) random.nextInt(1000), (long) random.nextInt(10_000_000), DAYS))
+                .toList();
+        sellerNames = rows.stream().collect(Collectors.toMap(SellerProjection::sellerId, x -> "Seller " + x.sellerId()));
+    }
+
+    @Benchmark
+    public List<SellerDTO> centsMapping() {
+
+        return rows.stream().map(x -> new SellerDTO(sellerNames.get(x.sellerId()), x.totalSales(), x.totalAmountCents(), DAYS)).toList();
+    }
+
+    @Benchmark
+    public List<DoubleAverageSellerDTO> doubleAverageMapping() {
+
+        BigDecimal days = BigDecimal.valueOf(DAYS);
+
+        return rows.stream().map(x -> new DoubleAverageSellerDTO(sellerNames.get(x.sellerId()), x.totalSales(),
+                BigDecimal.valueOf(x.totalAmountCents(), 2).divide(days, MathContext.DECIMAL64).doubleValue())).toList();
+    }
+
+    @Benchmark
+    public byte[] centsMappingToJson() throws IOException {
+
+        return objectMapper.writeValueAsBytes(centsMapping());
+    }
+
+    @Benchmark
+    public byte[] doubleAverageMappingToJson() throws IOException {
+
+        return objectMapper.writeValueAsBytes(doubleAverageMapping());
+    }
+
+    public record DoubleAverageSellerDTO (String sellerName, Long totalSales, Double averageDailySales) {
+    }
+
+}
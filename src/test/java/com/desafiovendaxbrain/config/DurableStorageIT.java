@@ -0,0 +1,50 @@
+package com.desafiovendaxbrain.config;
+
+import com.desafiovendaxbrain.SaleChallengeXBrainApplication;
+import com.desafiovendaxbrain.dto.SaleDTO;
+import com.desafiovendaxbrain.dto.SellerDTO;
+import com.desafiovendaxbrain.repository.SaleRepository;
+import com.desafiovendaxbrain.service.SaleService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+
+// Starts the application twice on the same database file; the second start also checks the migrations against the entities (ddl-auto: validate).
+public class DurableStorageIT {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void shouldKeepSalesAndRollupsAcrossRestarts() {
+
+        try (ConfigurableApplicationContext context = start()) {
+            context.getBean(SaleService.class).createSale(new SaleDTO(null, Instant.parse("2025-10-20T10:00:00Z"), BigDecimal.valueOf(100.0), 1L, "Pedrinho"));
+        }
+
+        try (ConfigurableApplicationContext context = start()) {
+
+            Assertions.assertThat(context.getBean(SaleRepository.class).count()).isEqualTo(1);
+            Assertions.assertThat(context.getBean(SaleService.class).getSellerStatisticsByPeriod(Instant.parse("2025-10-20T00:00:00Z"),
+                    Instant.parse("2025-10-20T23:59:59Z"))).containsExactly(new SellerDTO("Pedrinho", 1L, 10000L, 1L));
+        }
+
+    }
+
+    // A command line argument, because builder properties are only defaults and application-durable.yaml would override them.
+    private ConfigurableApplicationContext start() {
+
+        return new SpringApplicationBuilder(SaleChallengeXBrainApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("durable")
+                .run("--sales.storage.directory=" + directory);
+    }
+
+}
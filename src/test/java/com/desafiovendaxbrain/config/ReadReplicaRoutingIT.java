@@ -0,0 +1,60 @@
+package com.desafiovendaxbrain.config;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+// Two separate H2 databases stand in for primary and replica, so the URL of the connection shows where it was routed
+@SpringBootTest (properties = {
+        "spring.datasource.url=jdbc:h2:mem:routingprimary",
+        "sales.datasource.replica.enabled=true",
+        "sales.datasource.replica.url=jdbc:h2:mem:routingreplica",
+        "sales.datasource.replica.username=sa",
+        "sales.datasource.replica.max-staleness=0s"})
+@DirtiesContext
+public class ReadReplicaRoutingIT {
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void shouldRouteReadOnlyTransactionsToTheReplica() {
+
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        String url = readOnlyTransaction.execute(status -> connectionUrl());
+
+        Assertions.assertThat(url).contains("routingreplica");
+
+    }
+
+    @Test
+    public void shouldKeepReadWriteTransactionsOnThePrimary() {
+
+        String url = new TransactionTemplate(transactionManager).execute(status -> connectionUrl());
+
+        Assertions.assertThat(url).contains("routingprimary");
+
+    }
+
+    private String connectionUrl() {
+
+        try {
+            return DataSourceUtils.getConnection(dataSource).getMetaData().getURL();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
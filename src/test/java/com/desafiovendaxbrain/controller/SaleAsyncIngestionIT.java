@@ -0,0 +1,103 @@
+package com.desafiovendaxbrain.controller;
+
+import com.desafiovendaxbrain.dto.SaleDTO;
+import com.desafiovendaxbrain.model.Sale;
+import com.desafiovendaxbrain.repository.RejectedSaleRepository;
+import com.desafiovendaxbrain.repository.SaleRepository;
+import com.desafiovendaxbrain.repository.SellerRepository;
+import com.desafiovendaxbrain.service.SaleService;
+import com.desafiovendaxbrain.utils.SaleDTOFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@SpringBootTest (properties = {"sales.ingestion.async.enabled=true", "sales.ingestion.async.flush-interval=50ms",
+        "spring.datasource.url=jdbc:h2:mem:asyncingestion"})
+@AutoConfigureMockMvc
+@DirtiesContext
+public class SaleAsyncIngestionIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private SaleRepository saleRepository;
+    @Autowired
+    private SellerRepository sellerRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private SaleService saleService;
+    @Autowired
+    private RejectedSaleRepository rejectedSaleRepository;
+
+    @Test
+    public void shouldAcceptSaleWithReservedIdAndWriteItBehind() throws Exception {
+
+        SaleDTO defaultValidDTO = SaleDTOFactory.getCustomValidDTO(null, Instant.parse("2025-10-20T00:00:00Z"), BigDecimal.valueOf(100.0),
+                1L, "Pedrinho");
+
+        String body = mockMvc.perform(MockMvcRequestBuilders.post("/api/sales")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(defaultValidDTO)))
+                .andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id").isNumber())
+                .andReturn().getResponse().getContentAsString();
+
+        Long reservedId = objectMapper.readValue(body, SaleDTO.class).id();
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (saleRepository.findById(reservedId).isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        Assertions.assertThat(saleRepository.findById(reservedId)).hasValueSatisfying(sale -> {
+            Assertions.assertThat(sale.getSellerId()).isEqualTo(1L);
+            Assertions.assertThat(sale.getSaleDate()).isEqualTo(Instant.parse("2025-10-20T00:00:00Z"));
+        });
+        Assertions.assertThat(sellerRepository.findById(1L)).hasValueSatisfying(seller ->
+                Assertions.assertThat(seller.getName()).isEqualTo("Pedrinho"));
+
+    }
+
+    // The middle sale reuses an idempotency key already in tb_venda, which fails the whole batch insert; the other two
+    // sales must still be written and only the conflicting one dead-lettered.
+    @Test
+    public void shouldWriteTheRestOfAFailedBatchAndDeadLetterOnlyTheFailingSale() throws Exception {
+
+        Sale existing = new Sale(null, Instant.parse("2025-10-19T00:00:00Z"), BigDecimal.valueOf(10.0), 1L, "Pedrinho");
+        existing.setIdempotencyKey("pos-9-1");
+        saleRepository.saveAndFlush(existing);
+
+        Long first = saleService.enqueueSale(SaleDTOFactory.getCustomValidDTO(null, Instant.parse("2025-10-20T00:00:00Z"), BigDecimal.valueOf(100.0), 1L, "Pedrinho")).id();
+        Long conflicting = saleService.enqueueSale(SaleDTOFactory.getCustomValidDTO(null, Instant.parse("2025-10-20T00:00:00Z"), BigDecimal.valueOf(200.0), 1L, "Pedrinho"), "pos-9-1").id();
+        Long last = saleService.enqueueSale(SaleDTOFactory.getCustomValidDTO(null, Instant.parse("2025-10-20T00:00:00Z"), BigDecimal.valueOf(300.0), 2L, "Joãozinho")).id();
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while ((rejectedSaleRepository.count() == 0 || saleRepository.findById(last).isEmpty()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        Assertions.assertThat(saleRepository.findById(first)).isPresent();
+        Assertions.assertThat(saleRepository.findById(last)).isPresent();
+        Assertions.assertThat(saleRepository.findById(conflicting)).isEmpty();
+        Assertions.assertThat(rejectedSaleRepository.findAll()).singleElement().satisfies(rejected -> {
+            Assertions.assertThat(rejected.getId()).isEqualTo(conflicting);
+            Assertions.assertThat(rejected.getIdempotencyKey()).isEqualTo("pos-9-1");
+            Assertions.assertThat(rejected.getAmount()).isEqualByComparingTo("200.00");
+            Assertions.assertThat(rejected.getReason()).isNotBlank();
+        });
+
+    }
+
+}
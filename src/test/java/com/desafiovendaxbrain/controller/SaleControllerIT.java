@@ -2,21 +2,34 @@ package com.desafiovendaxbrain.controller;
 
 import com.desafiovendaxbrain.dto.SaleDTO;
 import com.desafiovendaxbrain.repository.SaleRepository;
+import com.desafiovendaxbrain.service.SaleService;
 import com.desafiovendaxbrain.utils.SaleDTOFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.apache.commons.lang3.RandomStringUtils;
+import org.assertj.core.api.Assertions;
+import org.hamcrest.Matchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -27,10 +40,16 @@ public class SaleControllerIT {
     private SaleRepository saleRepository;
     @Autowired
     private ObjectMapper objectMapper;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private SaleService saleService;
 
+    // Rebuilding from the emptied table also clears the rollups, amount buckets, statistics cache, data versions and engine.
     @BeforeEach
     void setUp() {
         saleRepository.deleteAll();
+        saleService.rebuildSellerRollups();
     }
 
     @Test
@@ -52,12 +71,53 @@ public class SaleControllerIT {
 
     }
 
+    @Test
+    @DirtiesContext (methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturnTheOriginalSaleWhenRetriedWithTheSameIdempotencyKey() throws Exception {
+
+        SaleDTO defaultValidDTO = SaleDTOFactory.getCustomValidDTO(null, Instant.parse("2025-10-20T00:00:00Z"), BigDecimal.valueOf(100.0),
+                1L, "Pedrinho");
+        String body = objectMapper.writeValueAsString(defaultValidDTO);
+
+        String first = mockMvc.perform(MockMvcRequestBuilders.post("/api/sales").header("Idempotency-Key", "pos-1-42")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        String retry = mockMvc.perform(MockMvcRequestBuilders.post("/api/sales").header("Idempotency-Key", "pos-1-42")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        Assertions.assertThat(retry).isEqualTo(first);
+        Assertions.assertThat(saleRepository.count()).isEqualTo(1);
+
+    }
+
+    @Test
+    public void shouldReturnBadRequestWhenIdempotencyKeyIsBlankOrTooLong() throws Exception {
+
+        String body = objectMapper.writeValueAsString(SaleDTOFactory.getCustomValidDTO(null, Instant.parse("2025-10-20T00:00:00Z"),
+                BigDecimal.valueOf(100.0), 1L, "Pedrinho"));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/sales").header("Idempotency-Key", "   ")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/sales").header("Idempotency-Key", "k".repeat(101))
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.detail").value(Matchers.containsString("Idempotency-Key")));
+
+        Assertions.assertThat(saleRepository.count()).isZero();
+
+    }
+
     @Test
     public void shouldThrow404BadRequestWhenNameHasMoreThan100Characters() throws Exception {
 
 
         SaleDTO customInvalidDTO = SaleDTOFactory.getCustomInvalidDTO(null, Instant.parse("2025-10-20T00:00:00Z"), BigDecimal.valueOf(100.0),
-                1L, RandomStringUtils.random(120, true, false));
+                1L, RandomStringUtils.insecure().nextAlphabetic(120));
         mockMvc.perform(MockMvcRequestBuilders.post("/api/sales").contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(customInvalidDTO))).
                 andExpect(MockMvcResultMatchers.status().isBadRequest());
@@ -80,7 +140,7 @@ public class SaleControllerIT {
     public void shouldThrow404BadRequestWhenSaleDateIsAfterToday() throws Exception {
 
         SaleDTO customInvalidDTO = SaleDTOFactory.getCustomInvalidDTO(null, Instant.parse("2025-10-28T00:00:00Z"), BigDecimal.valueOf(100.0),
-                1L, RandomStringUtils.random(120, true, false));
+                1L, RandomStringUtils.insecure().nextAlphabetic(120));
 
         mockMvc.perform(MockMvcRequestBuilders.post("/api/sales").contentType(MediaType.APPLICATION_JSON).
                 content(objectMapper.writeValueAsString(customInvalidDTO))).andExpect(MockMvcResultMatchers.status().isBadRequest());
@@ -155,5 +215,297 @@ public class SaleControllerIT {
     }
 
 
-}
+    // Batch inserts advance the pooled sale sequence, so the context is rebuilt to keep the ids asserted above stable
+    @Test
+    @DirtiesContext (methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldCreateValidSalesAndReportInvalidOnesInBatch() throws Exception {
+
+        SaleDTO validDTO = SaleDTOFactory.getCustomValidDTO(null, Instant.parse("2025-10-20T00:00:00Z"), BigDecimal.valueOf(100.0),
+                1L, "Pedrinho");
+        SaleDTO invalidDTO = SaleDTOFactory.getCustomInvalidDTO(null, Instant.parse("2025-10-20T00:00:00Z"), BigDecimal.valueOf(-1),
+                1L, "Pedrinho");
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/sales/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(validDTO, invalidDTO, validDTO))))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.received").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.created").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].index").value(1));
+
+    }
+
+    @Test
+    @DirtiesContext (methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldCreateSalesInBatchFromNdjsonStream() throws Exception {
+
+        SaleDTO validDTO = SaleDTOFactory.getCustomValidDTO(null, Instant.parse("2025-10-20T00:00:00Z"), BigDecimal.valueOf(100.0),
+                1L, "Pedrinho");
+        String line = objectMapper.writeValueAsString(validDTO);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/sales/batch").contentType(MediaType.APPLICATION_NDJSON)
+                        .content(line + "\n" + line + "\n"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.received").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.created").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors").isEmpty());
+
+    }
+
+    @Test
+    @DirtiesContext (methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReportMalformedNdjsonLinesAndCreateTheRest() throws Exception {
+
+        SaleDTO validDTO = SaleDTOFactory.getCustomValidDTO(null, Instant.parse("2025-10-20T00:00:00Z"), BigDecimal.valueOf(100.0),
+                1L, "Pedrinho");
+        String line = objectMapper.writeValueAsString(validDTO);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/sales/batch").contentType(MediaType.APPLICATION_NDJSON)
+                        .content(line + "\n{\"amount\": 10.0,\n" + line + "\n{\"amount\": \"ten\"}\n\n" + line + "\n"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.received").value(5))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.created").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].index").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].messages[0]").value(Matchers.startsWith("Malformed JSON")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[1].index").value(3));
+
+        Assertions.assertThat(saleRepository.count()).isEqualTo(3);
+
+    }
+
+    @Test
+    @DirtiesContext (methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldImportSalesFromCsvFileAndReportInvalidRows() throws Exception {
+
+        String csv = """
+                sellerName,sellerId,amount,saleDate
+                Pedrinho,1,100.00,2025-10-20T00:00:00Z
+                Pedrinho,1,-1,2025-10-20T00:00:00Z
+                Joãozinho,2,200.00,2025-10-21T00:00:00Z
+                """;
+        MockMultipartFile file = new MockMultipartFile("file", "sales.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(MockMvcRequestBuilders.multipart("/api/sales/import").file(file))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.received").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.created").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].index").value(1));
+
+        Assertions.assertThat(saleRepository.count()).isEqualTo(2);
+
+    }
+
+    @Test
+    @DirtiesContext (methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReportMalformedCsvRowsAndImportTheRest() throws Exception {
+
+        String csv = """
+                sellerName,sellerId,amount,saleDate
+                Pedrinho,1,100.00,2025-10-20T00:00:00Z
+                Pedrinho,1,abc,2025-10-20T00:00:00Z
+                Joãozinho,2,200.00,yesterday
+                Joãozinho,2,200.00,2025-10-21T00:00:00Z
+                """;
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/sales/import").contentType("text/csv").content(csv.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.received").value(4))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.created").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].index").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].messages[0]").value(Matchers.startsWith("Malformed CSV row")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[1].index").value(2));
+
+        Assertions.assertThat(saleRepository.count()).isEqualTo(2);
+
+    }
+
+    @Test
+    @DirtiesContext (methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldExportSalesOfAPeriodAsCsv() throws Exception {
+
+        SaleDTO insideSale = SaleDTOFactory.getCustomValidDTO(null, Instant.parse("2025-10-20T10:00:00Z"), BigDecimal.valueOf(100.0),
+                1L, "Pedrinho");
+        SaleDTO outsideSale = SaleDTOFactory.getCustomValidDTO(null, Instant.parse("2025-10-22T10:00:00Z"), BigDecimal.valueOf(200.0),
+                2L, "Joãozinho");
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/sales/import").contentType(MediaType.APPLICATION_NDJSON)
+                        .content(objectMapper.writeValueAsString(insideSale) + "\n" + objectMapper.writeValueAsString(outsideSale) + "\n"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.created").value(2));
+
+        MvcResult asyncResult = mockMvc.perform(MockMvcRequestBuilders.get("/api/sales/export").accept("text/csv")
+                        .param("start", "2025-10-20T00:00:00Z").param("end", "2025-10-21T00:00:00Z"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+
+        String body = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(asyncResult))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        Assertions.assertThat(body.lines()).hasSize(2);
+        Assertions.assertThat(body.lines().findFirst()).hasValue("id,saleDate,amount,sellerId,sellerName");
+        Assertions.assertThat(body.lines().skip(1).findFirst()).hasValueSatisfying(line ->
+                Assertions.assertThat(line).contains("2025-10-20T10:00:00Z").endsWith(",1,Pedrinho"));
+
+    }
+
+    @Test
+    @DirtiesContext (methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldStreamSellerStatisticsAsNdjson() throws Exception {
+
+        SaleDTO firstSale = SaleDTOFactory.getCustomValidDTO(null, Instant.parse("2025-10-20T00:00:00Z"), BigDecimal.valueOf(100.0),
+                1L, "Pedrinho");
+        SaleDTO secondSale = SaleDTOFactory.getCustomValidDTO(null, Instant.parse("2025-10-20T00:00:00Z"), BigDecimal.valueOf(200.0),
+                2L, "Joãozinho");
+
+        for (SaleDTO sale : List.of(firstSale, secondSale)) {
+            mockMvc.perform(MockMvcRequestBuilders.post("/api/sales").contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(sale))).andExpect(MockMvcResultMatchers.status().isCreated());
+        }
+
+        MvcResult asyncResult = mockMvc.perform(MockMvcRequestBuilders.get("/api/sales/stream")
+                        .param("start", "2025-10-20T00:00:00Z").param("end", "2025-10-20T23:59:59Z"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+
+        String body = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(asyncResult))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        Assertions.assertThat(body.lines()).hasSize(2);
+        Assertions.assertThat(body.lines().findFirst()).hasValueSatisfying(line ->
+                Assertions.assertThat(line).contains("\"sellerName\":\"Joãozinho\""));
+
+    }
+
+    @Test
+    @DirtiesContext (methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturnSellerStatisticsFromReactiveEndpointAsynchronously() throws Exception {
+
+        SaleDTO sale = SaleDTOFactory.getCustomValidDTO(null, Instant.parse("2025-10-20T00:00:00Z"), BigDecimal.valueOf(100.0),
+                1L, "Pedrinho");
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/sales").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(sale))).andExpect(MockMvcResultMatchers.status().isCreated());
+
+        MvcResult asyncResult = mockMvc.perform(MockMvcRequestBuilders.get("/api/reactive/sales").accept(MediaType.APPLICATION_JSON)
+                        .param("start", "2025-10-20T00:00:00Z").param("end", "2025-10-20T23:59:59Z"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(asyncResult))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].sellerName").value("Pedrinho"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].totalSales").value(1));
+
+    }
+
+    @Test
+    @DirtiesContext (methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturnTicketSizePercentilesOnlyWhenRequested() throws Exception {
+
+        for (BigDecimal amount : List.of(BigDecimal.valueOf(10.0), BigDecimal.valueOf(20.0), BigDecimal.valueOf(1000.0))) {
+            mockMvc.perform(MockMvcRequestBuilders.post("/api/sales").contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(SaleDTOFactory.getCustomValidDTO(null, Instant.parse("2025-10-20T00:00:00Z"), amount, 1L, "Pedrinho"))))
+                    .andExpect(MockMvcResultMatchers.status().isCreated());
+        }
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/sales").param("start", "2025-10-20T00:00:00Z").param("end", "2025-10-20T23:59:59Z")
+                        .param("percentiles", "true"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].amountPercentiles.median").value(Matchers.closeTo(20.0, 0.2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].amountPercentiles.p95").exists());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/sales").param("start", "2025-10-20T00:00:00Z").param("end", "2025-10-20T23:59:59Z"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].amountPercentiles").doesNotExist());
+
+    }
+
+    @Test
+    @DirtiesContext (methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldAnswerNotModifiedUntilASaleForThePeriodIsWritten() throws Exception {
+
+        SaleDTO sale = SaleDTOFactory.getCustomValidDTO(null, Instant.parse("2025-10-20T00:00:00Z"), BigDecimal.valueOf(100.0),
+                1L, "Pedrinho");
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/sales").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(sale))).andExpect(MockMvcResultMatchers.status().isCreated());
+
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get("/api/sales").param("start", "2025-10-20T00:00:00Z").param("end", "2025-10-20T23:59:59Z"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        Assertions.assertThat(etag).isNotNull();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/sales").param("start", "2025-10-20T00:00:00Z").param("end", "2025-10-20T23:59:59Z")
+                        .header("If-None-Match", etag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/sales").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(sale))).andExpect(MockMvcResultMatchers.status().isCreated());
 
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/sales").param("start", "2025-10-20T00:00:00Z").param("end", "2025-10-20T23:59:59Z")
+                        .header("If-None-Match", etag))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].totalSales").value(2));
+
+    }
+
+    @Test
+    public void shouldReturnBadRequestForInvalidStatisticsParameters() throws Exception {
+
+        String decimalCursor = Base64.getUrlEncoder().withoutPadding().encodeToString("1.5:1".getBytes(StandardCharsets.UTF_8));
+        List<MockHttpServletRequestBuilder> requests = List.of(
+                statisticsRequest().param("end", "2025-10-19T00:00:00Z"),
+                statisticsRequest().param("sort", "name"),
+                statisticsRequest().param("limit", "0"),
+                statisticsRequest().param("limit", "ten"),
+                statisticsRequest().param("cursor", "not-a-cursor"),
+                statisticsRequest().param("sort", "totalSales").param("cursor", decimalCursor),
+                statisticsRequest().param("granularity", "hour"),
+                statisticsRequest().param("granularity", "day").param("zone", "Mars/Olympus_Mons"));
+
+        for (MockHttpServletRequestBuilder request : requests) {
+            mockMvc.perform(request).andExpect(MockMvcResultMatchers.status().isBadRequest());
+        }
+
+        MvcResult asyncResult = mockMvc.perform(MockMvcRequestBuilders.get("/api/reactive/sales").accept(MediaType.APPLICATION_JSON)
+                        .param("start", "2025-10-20T00:00:00Z").param("end", "2025-10-19T00:00:00Z"))
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(asyncResult))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/sales/stream").param("start", "2025-10-20T00:00:00Z").param("end", "2025-10-19T00:00:00Z"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+    }
+
+    @Test
+    public void shouldRecordStatisticsQueryMetrics() throws Exception {
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/sales").param("start", "2024-01-01T00:00:00Z").param("end", "2024-01-31T00:00:00Z"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        Timer statisticsQuery = meterRegistry.find("sales.statistics.query").timer();
+        Assertions.assertThat(statisticsQuery).isNotNull();
+        Assertions.assertThat(statisticsQuery.count()).isGreaterThanOrEqualTo(1);
+
+    }
+
+    @Test
+    public void shouldPublishConnectionPoolSaturation() throws Exception {
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/sales").param("start", "2024-01-01T00:00:00Z").param("end", "2024-01-31T00:00:00Z")
+                        .param("limit", "10"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        Gauge saturation = meterRegistry.find("sales.datasource.pool.saturation").tag("pool", "sales").gauge();
+        Assertions.assertThat(saturation).isNotNull();
+        Assertions.assertThat(saturation.value()).isBetween(0.0, 1.0);
+
+    }
+
+    private MockHttpServletRequestBuilder statisticsRequest() {
+
+        return MockMvcRequestBuilders.get("/api/sales").param("start", "2025-10-20T00:00:00Z");
+    }
+
+}
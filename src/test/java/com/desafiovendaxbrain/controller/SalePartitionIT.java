@@ -0,0 +1,173 @@
+package com.desafiovendaxbrain.controller;
+
+import com.desafiovendaxbrain.dto.SaleDTO;
+import com.desafiovendaxbrain.model.Sale;
+import com.desafiovendaxbrain.repository.SaleRepository;
+import com.desafiovendaxbrain.repository.projection.SellerDailySales;
+import com.desafiovendaxbrain.utils.SaleDTOFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.h2.api.Trigger;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+// Archiving creates tables, which H2 commits right away, so this runs against its own database instead of a rolled back @DataJpaTest.
+// Idempotency keys are not kept in memory, so retries are answered from the tables.
+@SpringBootTest (properties = {"spring.datasource.url=jdbc:h2:mem:salepartitions", "sales.idempotency.ttl=0s"})
+@AutoConfigureMockMvc
+@DirtiesContext
+public class SalePartitionIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private SaleRepository saleRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void shouldArchiveClosedMonthsAndKeepReadingThem() throws Exception {
+
+        saleRepository.saveAllAndFlush(List.of(
+                createSale(Instant.parse("2025-09-10T10:00:00Z"), BigDecimal.valueOf(100.0), 1L, "Pedrinho"),
+                createSale(Instant.parse("2025-09-30T23:00:00Z"), BigDecimal.valueOf(50.0), 1L, "Pedrinho"),
+                createSale(Instant.parse("2025-10-01T00:00:00Z"), BigDecimal.valueOf(200.0), 2L, "Joãozinho")));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/sales/partitions/archive").param("before", "2025-10"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].month").value("2025-09"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].tableName").value("tb_venda_2025_09"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].archivedRows").value(2));
+
+        Assertions.assertThat(saleRepository.count()).isEqualTo(1);
+
+        List<SellerDailySales> dailySales = saleRepository.findDailySellerSales(Instant.parse("2025-09-01T00:00:00Z"),
+                Instant.parse("2025-10-02T00:00:00Z"), ZoneOffset.UTC);
+
+        Assertions.assertThat(dailySales).extracting(SellerDailySales::day)
+                .containsExactly(LocalDate.parse("2025-09-10"), LocalDate.parse("2025-09-30"), LocalDate.parse("2025-10-01"));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/sales/rollups/rebuild"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string("3"));
+
+    }
+
+    @Test
+    public void shouldRefuseToArchiveTheCurrentMonth() throws Exception {
+
+        String nextMonth = YearMonth.now(ZoneOffset.UTC).plusMonths(1).toString();
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/sales/partitions/archive").param("before", nextMonth))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+    }
+
+    @Test
+    public void shouldRejectAnInvalidMonth() throws Exception {
+
+        for (String before : List.of("2024-13", "foo", "2024-1")) {
+            mockMvc.perform(MockMvcRequestBuilders.post("/api/sales/partitions/archive").param("before", before))
+                    .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.detail").value(Matchers.containsString("yyyy-MM")));
+        }
+
+    }
+
+    @Test
+    @DirtiesContext (methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturnTheArchivedSaleWhenRetriedWithTheSameIdempotencyKey() throws Exception {
+
+        String body = objectMapper.writeValueAsString(SaleDTOFactory.getCustomValidDTO(null, Instant.parse("2025-09-10T10:00:00Z"),
+                BigDecimal.valueOf(100.0), 1L, "Pedrinho"));
+
+        String first = mockMvc.perform(MockMvcRequestBuilders.post("/api/sales").header("Idempotency-Key", "pos-3-7")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/sales/partitions/archive").param("before", "2025-10"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        long currentSales = saleRepository.count();
+
+        String retry = mockMvc.perform(MockMvcRequestBuilders.post("/api/sales").header("Idempotency-Key", "pos-3-7")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        Assertions.assertThat(objectMapper.readValue(retry, SaleDTO.class).id()).isEqualTo(objectMapper.readValue(first, SaleDTO.class).id());
+        Assertions.assertThat(saleRepository.count()).isEqualTo(currentSales);
+
+    }
+
+    // The trigger on the partition inserts a sale of the same month into tb_venda right after the copy, standing in for a
+    // sale committed between the copy and the delete. It must survive the archive instead of being deleted uncopied.
+    @Test
+    @DirtiesContext (methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldKeepSalesOfTheMonthCommittedAfterTheCopy() throws Exception {
+
+        saleRepository.saveAndFlush(createSale(Instant.parse("2025-08-10T10:00:00Z"), BigDecimal.valueOf(100.0), 1L, "Pedrinho"));
+        jdbcTemplate.execute("""
+                CREATE TABLE tb_venda_2025_08 (id BIGINT PRIMARY KEY, sale_date TIMESTAMP WITH TIME ZONE NOT NULL, amount NUMERIC(10, 2),
+                seller_id BIGINT, idempotency_key VARCHAR(100))""");
+        jdbcTemplate.execute("CREATE TRIGGER tg_venda_2025_08_late_sale AFTER INSERT ON tb_venda_2025_08 FOR EACH STATEMENT CALL \""
+                + LateSaleTrigger.class.getName() + "\"");
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/sales/partitions/archive").param("before", "2025-09"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].archivedRows").value(1));
+
+        Assertions.assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_venda_2025_08", Long.class)).isEqualTo(1);
+        Assertions.assertThat(saleRepository.findById(LateSaleTrigger.LATE_SALE_ID)).isPresent();
+
+    }
+
+    public static class LateSaleTrigger implements Trigger {
+
+        final static long LATE_SALE_ID = 999_999L;
+
+        @Override
+        public void fire(Connection connection, Object[] oldRow, Object[] newRow) throws SQLException {
+
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO tb_venda (id, sale_date, amount, seller_id) VALUES (?, TIMESTAMP WITH TIME ZONE '2025-08-20 10:00:00+00', 50.00, 1)")) {
+                insert.setLong(1, LATE_SALE_ID);
+                insert.executeUpdate();
+            }
+        }
+
+    }
+
+    private Sale createSale(Instant saleDate, BigDecimal amount, Long sellerId, String sellerName) {
+
+        Sale sale = new Sale();
+        sale.setSaleDate(saleDate);
+        sale.setAmount(amount);
+        sale.setSellerId(sellerId);
+        sale.setSellerName(sellerName);
+        return sale;
+    }
+
+}
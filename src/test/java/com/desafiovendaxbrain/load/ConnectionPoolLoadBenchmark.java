@@ -0,0 +1,49 @@
+package com.desafiovendaxbrain.load;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.net.http.HttpRequest;
+import java.util.concurrent.TimeUnit;
+
+// A deliberately small pool under the full load concurrency: the read-only statistics transactions must queue for a
+// connection without any acquisition timing out, and the pool meters show how long they waited.
+@SpringBootTest (webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"sales.statistics-cache.maximum-size=0", "sales.statistics-engine.enabled=false",
+        "spring.datasource.hikari.maximum-pool-size=4", "spring.datasource.hikari.minimum-idle=4", "spring.datasource.hikari.connection-timeout=5000"})
+public class ConnectionPoolLoadBenchmark extends SaleLoadBenchmarkSupport {
+
+    private final static Logger logger = LoggerFactory.getLogger(ConnectionPoolLoadBenchmark.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    protected String mode() {
+        return "pool-4-connections";
+    }
+
+    @Test
+    public void measureStatisticsPagesWithASaturatedPool() throws Exception {
+
+        HttpRequest page = HttpRequest.newBuilder(uri("/api/sales?start=2025-10-01T00:00:00Z&end=2025-10-31T00:00:00Z&limit=50")).GET().build();
+
+        run(page, 200, REQUESTS / 10, CONCURRENCY);
+        report("GET /api/sales?limit=50", CONCURRENCY, run(page, 200, REQUESTS, CONCURRENCY));
+
+        Timer acquire = meterRegistry.get("hikaricp.connections.acquire").tag("pool", "sales").timer();
+        Counter timeouts = meterRegistry.get("hikaricp.connections.timeout").tag("pool", "sales").counter();
+
+        logger.info("[{}] connection acquire: {} acquisitions, mean {} ms, max {} ms, {} timeouts", mode(), acquire.count(),
+                String.format("%.2f", acquire.mean(TimeUnit.MILLISECONDS)), String.format("%.2f", acquire.max(TimeUnit.MILLISECONDS)), timeouts.count());
+
+        Assertions.assertThat(timeouts.count()).isZero();
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.desafiovendaxbrain.load;
+
+import com.desafiovendaxbrain.dto.SaleDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.net.http.HttpRequest;
+import java.time.Instant;
+
+// The scenario compared between the Tomcat thread models: single sale creation followed by the statistics of its month.
+public abstract class CreateAndStatisticsLoadBenchmarkSupport extends SaleLoadBenchmarkSupport {
+
+    @Test
+    public void measureCreateAndStatisticsEndpoints() throws Exception {
+
+        byte[] sale = objectMapper.writeValueAsBytes(new SaleDTO(null, Instant.parse("2025-10-20T00:00:00Z"), BigDecimal.valueOf(100.0), 1L, "Pedrinho"));
+
+        HttpRequest create = HttpRequest.newBuilder(uri("/api/sales")).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(sale)).build();
+        HttpRequest statistics = HttpRequest.newBuilder(uri("/api/sales?start=2025-10-01T00:00:00Z&end=2025-10-31T00:00:00Z"))
+                .GET().build();
+
+        run(create, 201, REQUESTS / 10, CONCURRENCY);
+        report("POST /api/sales", CONCURRENCY, run(create, 201, REQUESTS, CONCURRENCY));
+
+        run(statistics, 200, REQUESTS / 10, CONCURRENCY);
+        report("GET /api/sales", CONCURRENCY, run(statistics, 200, REQUESTS, CONCURRENCY));
+    }
+
+}
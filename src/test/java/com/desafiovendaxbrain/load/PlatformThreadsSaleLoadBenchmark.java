@@ -0,0 +1,13 @@
+package com.desafiovendaxbrain.load;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest (webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"sales.statistics-cache.maximum-size=0", "sales.statistics-engine.enabled=false"})
+public class PlatformThreadsSaleLoadBenchmark extends CreateAndStatisticsLoadBenchmarkSupport {
+
+    @Override
+    protected String mode() {
+        return "platform-threads";
+    }
+
+}
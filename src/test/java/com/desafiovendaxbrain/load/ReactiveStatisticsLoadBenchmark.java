@@ -0,0 +1,47 @@
+package com.desafiovendaxbrain.load;
+
+import com.desafiovendaxbrain.dto.SaleDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.net.http.HttpRequest;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.LongStream;
+
+// Tomcat is capped at 50 threads so the blocking endpoint saturates first; the reactive one hands the lookup to Reactor and frees the thread.
+@SpringBootTest (webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"sales.statistics-cache.maximum-size=0", "sales.statistics-engine.enabled=false",
+        "server.tomcat.threads.max=50"})
+public class ReactiveStatisticsLoadBenchmark extends SaleLoadBenchmarkSupport {
+
+    private final static List<Integer> CONCURRENCY_LEVELS = List.of(50, 200, 800);
+
+    @Override
+    protected String mode() {
+        return "reactive";
+    }
+
+    @Test
+    public void measureBlockingAndReactiveStatisticsEndpointsAcrossConcurrencyLevels() throws Exception {
+
+        List<SaleDTO> sales = LongStream.rangeClosed(1, 1000).mapToObj(x -> new SaleDTO(null, Instant.parse("2025-10-01T00:00:00Z").plusSeconds(x * 2000),
+                BigDecimal.valueOf(100.0), x % 100, "Seller " + x % 100)).toList();
+
+        run(HttpRequest.newBuilder(uri("/api/sales/batch")).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(sales))).build(), 200, 1, 1);
+
+        String query = "?start=2025-10-01T00:00:00Z&end=2025-10-31T00:00:00Z";
+        HttpRequest blocking = HttpRequest.newBuilder(uri("/api/sales" + query)).GET().build();
+        HttpRequest reactive = HttpRequest.newBuilder(uri("/api/reactive/sales" + query)).header("Accept", "application/json").GET().build();
+
+        run(blocking, 200, REQUESTS / 10, CONCURRENCY);
+        run(reactive, 200, REQUESTS / 10, CONCURRENCY);
+
+        for (int concurrency : CONCURRENCY_LEVELS) {
+            report("GET /api/sales", concurrency, run(blocking, 200, REQUESTS, concurrency));
+            report("GET /api/reactive/sales", concurrency, run(reactive, 200, REQUESTS, concurrency));
+        }
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.desafiovendaxbrain.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Fires a fixed number of requests at the running server with a bounded number in flight and reports throughput and p99.
+// Holds no test of its own: each benchmark declares the scenario it measures.
+// Run with: mvn test -Pload-test [-Dload.requests=20000 -Dload.concurrency=400]
+public abstract class SaleLoadBenchmarkSupport {
+
+    private final static Logger logger = LoggerFactory.getLogger(SaleLoadBenchmarkSupport.class);
+    protected final static int REQUESTS = Integer.getInteger("load.requests", 5000);
+    protected final static int CONCURRENCY = Integer.getInteger("load.concurrency", 200);
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    protected ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    protected abstract String mode();
+
+    protected LoadResult run(HttpRequest request, int expectedStatus, int requests, int concurrency) throws InterruptedException {
+
+        long[] latencies = new long[requests];
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(concurrency);
+        long start = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            for (int i = 0; i < requests; i++) {
+
+                int index = i;
+                inFlight.acquire();
+
+                executor.submit(() -> {
+                    long requestStart = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        completed.incrementAndGet();
+                        if (response.statusCode() != expectedStatus) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    } finally {
+                        latencies[index] = System.nanoTime() - requestStart;
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        Arrays.sort(latencies);
+
+        // Throughput only counts the requests that got a response; the ones that threw are reported as failures.
+        return new LoadResult(requests, completed.get(), completed.get() / (elapsed / 1_000_000_000.0),
+                latencies[Math.max(0, (int) Math.ceil(requests * 0.99) - 1)] / 1_000_000.0, failures.get());
+    }
+
+    protected void report(String endpoint, int concurrency, LoadResult result) {
+
+        logger.info("[{}] {}: {} of {} requests completed, concurrency {}, {} req/s, p99 {} ms, {} failures", mode(), endpoint,
+                result.completed(), result.requests(), concurrency,
+                String.format("%.1f", result.throughput()), String.format("%.2f", result.p99Millis()), result.failures());
+
+        Assertions.assertThat(result.failures()).isZero();
+    }
+
+    protected URI uri(String path) {
+
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    protected record LoadResult(int requests, int completed, double throughput, double p99Millis, int failures) {
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.desafiovendaxbrain.load;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest (webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"sales.statistics-cache.maximum-size=0", "sales.statistics-engine.enabled=false"})
+@ActiveProfiles ("virtual-threads")
+public class VirtualThreadsSaleLoadBenchmark extends CreateAndStatisticsLoadBenchmarkSupport {
+
+    @Override
+    protected String mode() {
+        return "virtual-threads";
+    }
+
+}
@@ -1,15 +1,23 @@
 package com.desafiovendaxbrain.repository;
 
 import com.desafiovendaxbrain.model.Sale;
+import com.desafiovendaxbrain.repository.projection.SellerDailySales;
+import jakarta.persistence.EntityManager;
 import org.assertj.core.api.Assertions;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 
 import java.math.BigDecimal;
-import java.time.Duration;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
 
 @DataJpaTest
 public class SaleRepositoryIT {
@@ -17,6 +25,8 @@ public class SaleRepositoryIT {
 
     @Autowired
     private SaleRepository saleRepository;
+    @Autowired
+    private EntityManager entityManager;
 
 
     @BeforeEach
@@ -33,7 +43,6 @@ public class SaleRepositoryIT {
     public void shouldFindSaleStaticsForAGivenPeriod() {
         Instant start = Instant.parse("2025-10-18T00:00:00.00Z");
         Instant end = Instant.parse("2025-10-21T00:00:00.00Z");
-        Duration duration = Duration.between(start, end);
 
 
         saleRepository.save(createSale(Instant.parse("2025-10-18T00:00:00.00Z"), BigDecimal.valueOf(100.0), 1L, "Pedrinho"));
@@ -41,16 +50,14 @@ public class SaleRepositoryIT {
         saleRepository.save(createSale(Instant.parse("2025-10-20T00:00:00.00Z"), BigDecimal.valueOf(100.0), 1L, "Pedrinho"));
         saleRepository.save(createSale(Instant.parse("2025-10-18T00:00:00.00Z"), BigDecimal.valueOf(200.0), 2L, "Joãozinho"));
         saleRepository.save(createSale(Instant.parse("2025-10-19T00:00:00.00Z"), BigDecimal.valueOf(200.0), 2L, "Joãozinho"));
+        saleRepository.flush();
 
+        List<SellerDailySales> dailySales = saleRepository.findDailySellerSales(start, end, ZoneOffset.UTC);
 
-        Assertions.assertThat(saleRepository.findSellerStatisticsByPeriod(start, end, duration.toDays()).get()).isNotEmpty();
-        Assertions.assertThat(saleRepository.findSellerStatisticsByPeriod(start, end, duration.toDays()).get()).hasSize(2);
-        Assertions.assertThat(saleRepository.findSellerStatisticsByPeriod(start, end, duration.toDays()).get().get(0).getSellerName()).isEqualTo("Joãozinho");
-        Assertions.assertThat(saleRepository.findSellerStatisticsByPeriod(start, end, duration.toDays()).get().get(0).getTotalSales()).isEqualTo(2);
-
-
-        Assertions.assertThat(saleRepository.findSellerStatisticsByPeriod(start, end, duration.toDays()).get().get(1).getSellerName()).isEqualTo("Pedrinho");
-        Assertions.assertThat(saleRepository.findSellerStatisticsByPeriod(start, end, duration.toDays()).get().get(1).getTotalSales()).isEqualTo(3);
+        Assertions.assertThat(dailySales).isNotEmpty();
+        Assertions.assertThat(dailySales).extracting(SellerDailySales::sellerId).containsOnly(1L, 2L);
+        Assertions.assertThat(totalSales(dailySales, 1L)).isEqualTo(3);
+        Assertions.assertThat(totalSales(dailySales, 2L)).isEqualTo(2);
 
 
     }
@@ -60,13 +67,13 @@ public class SaleRepositoryIT {
     public void assertThatShouldReturnEmptyListWhenNoSaleFoundInAGivenPeriod() {
         Instant start = Instant.parse("2025-10-20T00:00:00.00Z");
         Instant end = Instant.parse("2025-10-21T00:00:00.00Z");
-        Duration duration = Duration.between(start, end);
 
         saleRepository.save(createSale(Instant.parse("2025-10-22T00:00:00.00Z"), BigDecimal.valueOf(100.0), 1L, "Pedrinho"));
         saleRepository.save(createSale(Instant.parse("2025-10-23T00:00:00.00Z"), BigDecimal.valueOf(100.0), 1L, "Pedrinho"));
         saleRepository.save(createSale(Instant.parse("2025-10-24T00:00:00.00Z"), BigDecimal.valueOf(100.0), 1L, "Pedrinho"));
+        saleRepository.flush();
 
-        Assertions.assertThat(saleRepository.findSellerStatisticsByPeriod(start, end, duration.toDays()).get().isEmpty()).isTrue();
+        Assertions.assertThat(saleRepository.findDailySellerSales(start, end, ZoneOffset.UTC).isEmpty()).isTrue();
 
 
     }
@@ -77,17 +84,90 @@ public class SaleRepositoryIT {
 
         Instant start = Instant.parse("2025-10-20T00:00:00.00Z");
         Instant end = Instant.parse("2025-10-25T00:00:00.00Z");
-        Duration duration = Duration.between(start, end);
 
         saleRepository.save(createSale(Instant.parse("2025-10-21T00:00:00.00Z"), BigDecimal.valueOf(100.0), 1L, "Pedrinho"));
         saleRepository.save(createSale(Instant.parse("2025-10-22T00:00:00.00Z"), BigDecimal.valueOf(100.0), 1L, "Pedrinho"));
         saleRepository.save(createSale(Instant.parse("2025-10-26T00:00:00.00Z"), BigDecimal.valueOf(100.0), 1L, "Pedrinho"));
         saleRepository.save(createSale(Instant.parse("2025-10-27T00:00:00.00Z"), BigDecimal.valueOf(100.0), 1L, "Pedrinho"));
+        saleRepository.flush();
+
+        Assertions.assertThat(totalSales(saleRepository.findDailySellerSales(start, end, ZoneOffset.UTC), 1L)).isEqualTo(2);
+
+
+
+    }
+
+
+    // Explains the statement findDailySellerSales runs (built by the same method), not a hand-written copy of it.
+    @Test
+    public void assertThatDailySellerSalesQueryUsesSaleDateSellerIndex() {
+
+        saleRepository.save(createSale(Instant.parse("2025-10-18T00:00:00.00Z"), BigDecimal.valueOf(100.0), 1L, "Pedrinho"));
+        saleRepository.save(createSale(Instant.parse("2025-10-19T00:00:00.00Z"), BigDecimal.valueOf(200.0), 2L, "Joãozinho"));
+        saleRepository.flush();
+
+        String plan = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + SaleSeriesRepositoryImpl.dailySellerSalesQuery(List.of("tb_venda"), 1))) {
+
+                statement.setInt(1, 0);
+                statement.setObject(2, Instant.parse("2025-10-18T00:00:00.00Z").atOffset(ZoneOffset.UTC));
+                statement.setObject(3, Instant.parse("2025-10-21T00:00:00.00Z").atOffset(ZoneOffset.UTC));
+
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+
+        Assertions.assertThat(plan).containsIgnoringCase("idx_venda_data_vendedor_valor");
+
 
-        Assertions.assertThat(saleRepository.findSellerStatisticsByPeriod(start, end, duration.toDays()).get().get(0).getTotalSales()).isEqualTo(2);
+    }
+
+
+    @Test
+    public void assertThatDailySellerSalesAreGroupedByLocalDayOfTheZone() {
+
+        saleRepository.save(createSale(Instant.parse("2025-10-19T15:00:00.00Z"), BigDecimal.valueOf(100.0), 1L, "Pedrinho"));
+        saleRepository.save(createSale(Instant.parse("2025-10-20T01:00:00.00Z"), BigDecimal.valueOf(50.0), 1L, "Pedrinho"));
+        saleRepository.save(createSale(Instant.parse("2025-10-20T15:00:00.00Z"), BigDecimal.valueOf(200.0), 1L, "Pedrinho"));
+        saleRepository.flush();
+
+        List<SellerDailySales> dailySales = saleRepository.findDailySellerSales(Instant.parse("2025-10-19T03:00:00.00Z"),
+                Instant.parse("2025-10-21T03:00:00.00Z"), ZoneId.of("America/Sao_Paulo"));
+
+        Assertions.assertThat(dailySales).hasSize(2);
+        Assertions.assertThat(dailySales.get(0).day()).isEqualTo(LocalDate.parse("2025-10-19"));
+        Assertions.assertThat(dailySales.get(0).totalSales()).isEqualTo(2);
+        Assertions.assertThat(dailySales.get(0).totalAmount()).isEqualByComparingTo("150.00");
+        Assertions.assertThat(dailySales.get(1).day()).isEqualTo(LocalDate.parse("2025-10-20"));
+        Assertions.assertThat(dailySales.get(1).totalSales()).isEqualTo(1);
+
+
+    }
+
+
+    @Test
+    public void assertThatDailySellerSalesFollowTheOffsetChangeOfTheZone() {
+
+        saleRepository.save(createSale(Instant.parse("2025-11-02T03:30:00.00Z"), BigDecimal.valueOf(100.0), 1L, "Pedrinho"));
+        saleRepository.save(createSale(Instant.parse("2025-11-03T04:30:00.00Z"), BigDecimal.valueOf(200.0), 1L, "Pedrinho"));
+        saleRepository.flush();
+
+        List<SellerDailySales> dailySales = saleRepository.findDailySellerSales(Instant.parse("2025-11-01T04:00:00.00Z"),
+                Instant.parse("2025-11-04T05:00:00.00Z"), ZoneId.of("America/New_York"));
+
+        Assertions.assertThat(dailySales).extracting(SellerDailySales::day)
+                .containsExactly(LocalDate.parse("2025-11-01"), LocalDate.parse("2025-11-02"));
+
+
+    }
 
 
+    private long totalSales(List<SellerDailySales> dailySales, Long sellerId) {
 
+        return dailySales.stream().filter(x -> x.sellerId().equals(sellerId)).mapToLong(SellerDailySales::totalSales).sum();
     }
 
 
@@ -0,0 +1,212 @@
+package com.desafiovendaxbrain.repository;
+
+import com.desafiovendaxbrain.model.Sale;
+import com.desafiovendaxbrain.model.Seller;
+import com.desafiovendaxbrain.model.SellerDailyAmountBucket;
+import com.desafiovendaxbrain.model.SellerDailyRollup;
+import com.desafiovendaxbrain.repository.projection.SellerAmountBucket;
+import com.desafiovendaxbrain.repository.projection.SellerProjection;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@DataJpaTest
+public class SellerDailyRollupRepositoryIT {
+
+
+    @Autowired
+    private SellerDailyRollupRepository rollupRepository;
+    @Autowired
+    private SaleRepository saleRepository;
+    @Autowired
+    private SellerDailyAmountBucketRepository amountBucketRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private SellerRepository sellerRepository;
+
+
+    @BeforeEach
+    public void setup() {
+
+        rollupRepository.deleteAll();
+        amountBucketRepository.deleteAll();
+        saleRepository.deleteAll();
+
+    }
+
+
+    @Test
+    public void shouldStreamSellerStatisticsBySellerNameWithUnnamedSellersLast() {
+
+        sellerRepository.saveAllAndFlush(List.of(new Seller(1L, "Pedrinho"), new Seller(2L, "Joãozinho")));
+        rollupRepository.saveAllAndFlush(List.of(
+                new SellerDailyRollup(3L, LocalDate.parse("2025-10-18"), 1L, BigDecimal.valueOf(30.0)),
+                new SellerDailyRollup(1L, LocalDate.parse("2025-10-18"), 1L, BigDecimal.valueOf(10.0)),
+                new SellerDailyRollup(2L, LocalDate.parse("2025-10-18"), 1L, BigDecimal.valueOf(20.0)),
+                new SellerDailyRollup(2L, LocalDate.parse("2025-10-19"), 2L, BigDecimal.valueOf(40.0))));
+
+        try (Stream<SellerProjection> statistics = rollupRepository.streamSellerStatisticsByPeriod(LocalDate.parse("2025-10-18"),
+                LocalDate.parse("2025-10-19"))) {
+            Assertions.assertThat(statistics.toList()).extracting(SellerProjection::sellerId, SellerProjection::totalSales)
+                    .containsExactly(Assertions.tuple(2L, 3L), Assertions.tuple(1L, 1L), Assertions.tuple(3L, 1L));
+        }
+
+    }
+
+
+    @Test
+    public void shouldRebuildOneRollupPerSellerAndDay() {
+
+        saleRepository.saveAllAndFlush(List.of(
+                createSale(Instant.parse("2025-10-18T10:00:00.00Z"), BigDecimal.valueOf(100.0), 1L, "Pedrinho"),
+                createSale(Instant.parse("2025-10-18T15:00:00.00Z"), BigDecimal.valueOf(50.0), 1L, "Pedrinho"),
+                createSale(Instant.parse("2025-10-19T00:00:00.00Z"), BigDecimal.valueOf(100.0), 1L, "Pedrinho"),
+                createSale(Instant.parse("2025-10-18T00:00:00.00Z"), BigDecimal.valueOf(200.0), 2L, "Joãozinho")));
+
+        int rebuilt = rollupRepository.rebuildFromSales();
+
+        Assertions.assertThat(rebuilt).isEqualTo(3);
+
+        List<SellerProjection> statistics = rollupRepository.findSellerStatisticsByPeriod(LocalDate.parse("2025-10-18"),
+                LocalDate.parse("2025-10-19")).get();
+
+        Assertions.assertThat(statistics).hasSize(2);
+        Assertions.assertThat(statistics).filteredOn(x -> x.sellerId().equals(1L))
+                .singleElement().satisfies(x -> {
+                    Assertions.assertThat(x.totalSales()).isEqualTo(3);
+                    Assertions.assertThat(x.totalAmountCents()).isEqualTo(25000L);
+                });
+
+    }
+
+
+    @Test
+    public void shouldRebuildAmountBucketsMatchingTheOnesComputedOnInsert() {
+
+        saleRepository.saveAllAndFlush(List.of(
+                createSale(Instant.parse("2025-10-18T10:00:00.00Z"), BigDecimal.valueOf(100.0), 1L, "Pedrinho"),
+                createSale(Instant.parse("2025-10-19T15:00:00.00Z"), BigDecimal.valueOf(100.0), 1L, "Pedrinho"),
+                createSale(Instant.parse("2025-10-19T00:00:00.00Z"), BigDecimal.valueOf(0.01), 1L, "Pedrinho"),
+                createSale(Instant.parse("2025-10-18T00:00:00.00Z"), BigDecimal.valueOf(1234.56), 2L, "Joãozinho")));
+
+        int rebuilt = rollupRepository.rebuildAmountBucketsFromSales();
+
+        Assertions.assertThat(rebuilt).isEqualTo(4);
+        Assertions.assertThat(amountBucketRepository.findSellerAmountBucketsByPeriod(LocalDate.parse("2025-10-18"), LocalDate.parse("2025-10-19")))
+                .containsExactlyInAnyOrder(
+                        new SellerAmountBucket(1L, SellerDailyAmountBucket.bucketOf(BigDecimal.valueOf(100.0)), 2L),
+                        new SellerAmountBucket(1L, SellerDailyAmountBucket.bucketOf(BigDecimal.valueOf(0.01)), 1L),
+                        new SellerAmountBucket(2L, SellerDailyAmountBucket.bucketOf(BigDecimal.valueOf(1234.56)), 1L));
+
+    }
+
+
+    @Test
+    public void shouldCreateMissingRollupsAndIncrementExistingOnes() {
+
+        rollupRepository.saveAndFlush(new SellerDailyRollup(1L, LocalDate.parse("2025-10-18"), 1L, BigDecimal.valueOf(100.0)));
+
+        rollupRepository.addToRollup(1L, LocalDate.parse("2025-10-18"), 2L, BigDecimal.valueOf(50.0));
+        rollupRepository.addToRollup(1L, LocalDate.parse("2025-10-19"), 1L, BigDecimal.valueOf(50.0));
+
+        Assertions.assertThat(rollupRepository.findSellerStatisticsByPeriod(LocalDate.parse("2025-10-18"),
+                LocalDate.parse("2025-10-18")).get().get(0).totalSales()).isEqualTo(3);
+        Assertions.assertThat(rollupRepository.findSellerStatisticsByPeriod(LocalDate.parse("2025-10-19"),
+                LocalDate.parse("2025-10-19")).get().get(0).totalSales()).isEqualTo(1);
+
+    }
+
+
+    // The second transaction misses the UPDATE while the first one's new row is uncommitted, then loses the INSERT
+    // on the unique key and must fall back to incrementing the committed row.
+    @Test
+    @Transactional (propagation = Propagation.NOT_SUPPORTED)
+    public void shouldMergeConcurrentFirstSalesOfTheSameSellerAndDay() throws Exception {
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+
+            Future<?> second = transaction.execute(status -> {
+
+                rollupRepository.addToRollup(1L, LocalDate.parse("2025-10-18"), 1L, BigDecimal.valueOf(100.0));
+
+                Future<?> concurrent = executor.submit(() -> transaction.executeWithoutResult(x ->
+                        rollupRepository.addToRollup(1L, LocalDate.parse("2025-10-18"), 1L, BigDecimal.valueOf(50.0))));
+
+                Assertions.assertThat(concurrent).failsWithin(Duration.ofMillis(500));
+
+                return concurrent;
+            });
+
+            second.get(10, TimeUnit.SECONDS);
+        }
+
+        Assertions.assertThat(rollupRepository.findSellerStatisticsByPeriod(LocalDate.parse("2025-10-18"),
+                LocalDate.parse("2025-10-18")).get()).singleElement().satisfies(x -> {
+                    Assertions.assertThat(x.totalSales()).isEqualTo(2);
+                    Assertions.assertThat(x.totalAmountCents()).isEqualTo(15000L);
+                });
+
+        rollupRepository.deleteAll();
+
+    }
+
+
+    @Test
+    public void shouldPageSellersByTotalSalesUsingKeysetCursor() {
+
+        rollupRepository.saveAllAndFlush(List.of(
+                new SellerDailyRollup(1L, LocalDate.parse("2025-10-18"), 3L, BigDecimal.valueOf(100.0)),
+                new SellerDailyRollup(2L, LocalDate.parse("2025-10-18"), 2L, BigDecimal.valueOf(300.0)),
+                new SellerDailyRollup(3L, LocalDate.parse("2025-10-18"), 2L, BigDecimal.valueOf(200.0))));
+
+        List<SellerProjection> firstPage = rollupRepository.findSellerStatisticsPageByTotalSales(LocalDate.parse("2025-10-18"),
+                LocalDate.parse("2025-10-18"), Long.MAX_VALUE, 0L, PageRequest.ofSize(2));
+
+        Assertions.assertThat(firstPage).extracting(SellerProjection::sellerId).containsExactly(1L, 2L);
+
+        List<SellerProjection> secondPage = rollupRepository.findSellerStatisticsPageByTotalSales(LocalDate.parse("2025-10-18"),
+                LocalDate.parse("2025-10-18"), 2L, 2L, PageRequest.ofSize(2));
+
+        Assertions.assertThat(secondPage).extracting(SellerProjection::sellerId).containsExactly(3L);
+
+        List<SellerProjection> byAmount = rollupRepository.findSellerStatisticsPageByTotalAmount(LocalDate.parse("2025-10-18"),
+                LocalDate.parse("2025-10-18"), BigDecimal.valueOf(Long.MAX_VALUE), 0L, PageRequest.ofSize(1));
+
+        Assertions.assertThat(byAmount).extracting(SellerProjection::sellerId).containsExactly(2L);
+
+    }
+
+
+    private Sale createSale(Instant saleDate, BigDecimal amount, Long sellerId, String sellerName) {
+
+        Sale sale = new Sale();
+        sale.setSaleDate(saleDate);
+        sale.setAmount(amount);
+        sale.setSellerId(sellerId);
+        sale.setSellerName(sellerName);
+        return sale;
+    }
+
+
+}
@@ -0,0 +1,92 @@
+package com.desafiovendaxbrain.service;
+
+import com.desafiovendaxbrain.dto.SaleDTO;
+import com.desafiovendaxbrain.model.Sale;
+import com.desafiovendaxbrain.repository.SaleRepository;
+import com.desafiovendaxbrain.utils.SaleDTOFactory;
+import com.desafiovendaxbrain.utils.SaleFactory;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+public class SaleIdempotencyServiceTest {
+
+    private SaleService saleService;
+    private SaleRepository saleRepository;
+    private SaleIdempotencyService saleIdempotencyService;
+    private SaleDTO saleDTO;
+
+    @BeforeEach
+    public void setup() {
+
+        saleService = Mockito.mock(SaleService.class);
+        saleRepository = Mockito.mock(SaleRepository.class);
+        saleIdempotencyService = new SaleIdempotencyService(10, Duration.ofMinutes(5), saleService, saleRepository, Mockito.mock(SellerCache.class));
+        saleDTO = SaleDTOFactory.getDefaultValidDTO();
+
+    }
+
+    @Test
+    public void assertThatRetryReturnsTheFirstResultWithoutCreatingAgain() {
+
+        SaleDTO created = new SaleDTO(1L, saleDTO.saleDate(), saleDTO.amount(), saleDTO.sellerId(), saleDTO.sellerName());
+        Mockito.when(saleRepository.findByIdempotencyKey("pos-1-42")).thenReturn(Optional.empty());
+        Mockito.when(saleRepository.findArchivedByIdempotencyKey("pos-1-42")).thenReturn(Optional.empty());
+        Mockito.when(saleService.createSale(saleDTO, "pos-1-42")).thenReturn(created);
+
+        SaleDTO first = saleIdempotencyService.createSale(saleDTO, "pos-1-42");
+        SaleDTO retry = saleIdempotencyService.createSale(saleDTO, "pos-1-42");
+
+        Assertions.assertThat(retry).isEqualTo(first).isEqualTo(created);
+        Mockito.verify(saleService, Mockito.times(1)).createSale(any(SaleDTO.class), anyString());
+        Mockito.verify(saleRepository, Mockito.times(1)).findByIdempotencyKey("pos-1-42");
+
+    }
+
+    @Test
+    public void assertThatKeyTakenConcurrentlyReturnsThePersistedSale() {
+
+        Sale persisted = SaleFactory.getDefaultValidSale();
+        Mockito.when(saleRepository.findByIdempotencyKey("pos-1-42")).thenReturn(Optional.empty()).thenReturn(Optional.of(persisted));
+        Mockito.when(saleRepository.findArchivedByIdempotencyKey("pos-1-42")).thenReturn(Optional.empty());
+        Mockito.when(saleService.createSale(saleDTO, "pos-1-42")).thenThrow(new DataIntegrityViolationException("idx_venda_chave_idempotencia"));
+
+        SaleDTO result = saleIdempotencyService.createSale(saleDTO, "pos-1-42");
+
+        Assertions.assertThat(result.id()).isEqualTo(persisted.getId());
+
+    }
+
+    @Test
+    public void assertThatRetryOfAnArchivedSaleReturnsItWithoutCreatingAgain() {
+
+        Sale archived = SaleFactory.getDefaultValidSale();
+        Mockito.when(saleRepository.findByIdempotencyKey("pos-1-42")).thenReturn(Optional.empty());
+        Mockito.when(saleRepository.findArchivedByIdempotencyKey("pos-1-42")).thenReturn(Optional.of(archived));
+
+        SaleDTO result = saleIdempotencyService.createSale(saleDTO, "pos-1-42");
+
+        Assertions.assertThat(result.id()).isEqualTo(archived.getId());
+        Mockito.verifyNoInteractions(saleService);
+
+    }
+
+    @Test
+    public void assertThatBlankKeyIsRejected() {
+
+        Assertions.assertThatThrownBy(() -> saleIdempotencyService.createSale(saleDTO, " "))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        Mockito.verifyNoInteractions(saleService);
+
+    }
+
+}
@@ -1,12 +1,17 @@
 package com.desafiovendaxbrain.service;
 
+import com.desafiovendaxbrain.dto.SaleBatchResultDTO;
 import com.desafiovendaxbrain.dto.SaleDTO;
+import com.desafiovendaxbrain.dto.SalesBucketDTO;
 import com.desafiovendaxbrain.dto.SellerDTO;
+import com.desafiovendaxbrain.dto.SellerStatisticsPageDTO;
+import com.desafiovendaxbrain.dto.SellerTimeSeriesDTO;
 import com.desafiovendaxbrain.model.Sale;
 import com.desafiovendaxbrain.repository.SaleRepository;
+import com.desafiovendaxbrain.repository.projection.SellerDailySales;
 import com.desafiovendaxbrain.repository.projection.SellerProjection;
 import com.desafiovendaxbrain.utils.SaleDTOFactory;
-import com.desafiovendaxbrain.utils.SaleFactory;
+import jakarta.validation.Validator;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,45 +19,77 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 
 @ExtendWith(SpringExtension.class)
 public class SaleServiceTest {
 
     @Mock
     private SaleRepository saleRepository;
+    @Mock
+    private SellerRollupService sellerRollupService;
+    @Mock
+    private SellerStatisticsCache sellerStatisticsCache;
+    @Mock
+    private SellerStatisticsEngine sellerStatisticsEngine;
+    @Mock
+    private Validator validator;
+    @Mock
+    private SaleBatchWriter saleBatchWriter;
+    @Mock
+    private SaleIngestionQueue saleIngestionQueue;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private SaleMetrics saleMetrics;
+    @Mock
+    private SellerCache sellerCache;
+    @Mock
+    private SellerStatisticsChunkedAggregator chunkedAggregator;
+    @Mock
+    private StatisticsDataVersions statisticsDataVersions;
     @InjectMocks
     private SaleService saleService;
     private SaleDTO saleDTO;
-    private Sale sale;
 
     @BeforeEach
     public void setup() {
 
         saleDTO = SaleDTOFactory.getDefaultValidDTO();
-        sale = SaleFactory.getDefaultValidSale();
+        Mockito.lenient().when(sellerCache.names(anyList())).thenReturn(Map.of(1L, "Pedrinho", 2L, "Joãozinho", 7L, "Pedrinho"));
 
     }
 
     @Test
     public void assertThatWhenDTOIsValidReturnWithValidIDInCreateService() {
 
-        Mockito.when(saleRepository.save(any(Sale.class))).thenReturn(sale);
+        Mockito.when(saleRepository.reserveId(any(Sale.class))).thenReturn(1L);
         SaleDTO savedSale = saleService.createSale(saleDTO);
         Assertions.assertThat(savedSale).isNotNull();
         Assertions.assertThat(savedSale.id()).isEqualTo(1L);
         Assertions.assertThat(savedSale.sellerName()).isEqualTo("Pedrinho");
         Assertions.assertThat(savedSale.amount()).isEqualTo(BigDecimal.valueOf(100.0));
 
-        Mockito.verify(saleRepository, Mockito.times(1)).save(any(Sale.class));
+        Mockito.verify(saleRepository, Mockito.times(1)).insertReservedInBatch(anyList());
+        Mockito.verify(saleRepository, Mockito.never()).save(any(Sale.class));
+        Mockito.verify(sellerRollupService, Mockito.times(1)).record(anyList());
+        Mockito.verify(eventPublisher, Mockito.times(1)).publishEvent(any(SalesRecordedEvent.class));
 
 
     }
@@ -60,56 +97,183 @@ public class SaleServiceTest {
     @Test
     public void assertThatShouldPropagateExceptionWhenRepositoryFail() {
 
-        Mockito.when(saleRepository.save(any(Sale.class))).thenThrow(new RuntimeException("Database connection error"));
+        Mockito.when(saleRepository.insertReservedInBatch(anyList())).thenThrow(new RuntimeException("Database connection error"));
 
         Assertions.assertThatThrownBy(() -> {
 
             saleService.createSale(saleDTO);
         }).isInstanceOf(RuntimeException.class).hasMessage("Database connection error");
 
-        Mockito.verify(saleRepository, Mockito.times(1)).save(any(Sale.class));
+        Mockito.verify(saleRepository, Mockito.times(1)).insertReservedInBatch(anyList());
+        Mockito.verify(sellerRollupService, Mockito.never()).record(anyList());
 
 
     }
 
     @Test
-    public void assertThatWhenEverythingIsValidReturnStaticsByPeriod() {
+    public void assertThatCreateSalesPersistsValidSalesInASingleBatch() {
+
+        Mockito.when(validator.validate(any(SaleDTO.class))).thenReturn(Set.of());
+        Mockito.when(saleBatchWriter.write(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
 
-        SellerProjection seller1 = Mockito.mock(SellerProjection.class);
-        SellerProjection seller2 = Mockito.mock(SellerProjection.class);
+        SaleBatchResultDTO result = saleService.createSales(List.of(saleDTO, saleDTO, saleDTO));
 
-        Mockito.when(seller1.getSellerName()).thenReturn("Pedrinho");
-        Mockito.when(seller1.getTotalSales()).thenReturn(2L);
-        Mockito.when(seller1.getAverageSalesByDay()).thenReturn(1.0);
+        Assertions.assertThat(result.received()).isEqualTo(3);
+        Assertions.assertThat(result.created()).isEqualTo(3);
+        Assertions.assertThat(result.errors()).isEmpty();
 
-        Mockito.when(seller2.getSellerName()).thenReturn("Joãozinho");
-        Mockito.when(seller2.getTotalSales()).thenReturn(4L);
-        Mockito.when(seller2.getAverageSalesByDay()).thenReturn(2.0);
+        Mockito.verify(saleBatchWriter, Mockito.times(1)).write(anyList());
+        Mockito.verify(saleRepository, Mockito.never()).save(any(Sale.class));
 
+    }
+
+    @Test
+    public void assertThatEnqueuedSaleGetsReservedIdWithoutBeingSaved() {
+
+        Mockito.when(saleRepository.reserveId(any(Sale.class))).thenReturn(51L);
+        Mockito.when(saleIngestionQueue.offer(any(Sale.class))).thenReturn(true);
 
-        Mockito.when(saleRepository.findSellerStatisticsByPeriod(any(Instant.class), any(Instant.class), any(Long.class))).thenReturn(Optional.of(List.of(seller1, seller2)));
+        SaleDTO acceptedSale = saleService.enqueueSale(saleDTO);
+
+        Assertions.assertThat(acceptedSale.id()).isEqualTo(51L);
+        Assertions.assertThat(acceptedSale.sellerName()).isEqualTo("Pedrinho");
+        Mockito.verify(saleRepository, Mockito.never()).save(any(Sale.class));
+
+    }
+
+    @Test
+    public void assertThatFullIngestionQueueRejectsSale() {
+
+        Mockito.when(saleRepository.reserveId(any(Sale.class))).thenReturn(51L);
+        Mockito.when(saleIngestionQueue.offer(any(Sale.class))).thenReturn(false);
+
+        Assertions.assertThatThrownBy(() -> saleService.enqueueSale(saleDTO)).isInstanceOf(SaleIngestionRejectedException.class);
+
+    }
+
+    @Test
+    public void assertThatWhenEverythingIsValidReturnStaticsByPeriod() {
+
+        SellerProjection seller1 = new SellerProjection(1L, 2L, 200L, 2L);
+        SellerProjection seller2 = new SellerProjection(2L, 4L, 400L, 2L);
+
+
+        Mockito.when(sellerRollupService.findSellerStatisticsByPeriod(any(StatisticsPeriod.class))).thenReturn(Optional.of(List.of(seller1, seller2)));
 
         List<SellerDTO> sellerStatisticsByPeriod = saleService.getSellerStatisticsByPeriod(Instant.parse("2025-10-20T00:00:00Z"), Instant.parse("2025-10-21T00:00:00Z"));
         Assertions.assertThat(sellerStatisticsByPeriod).isNotEmpty();
         Assertions.assertThat(sellerStatisticsByPeriod).hasSize(2);
-        Assertions.assertThat(sellerStatisticsByPeriod.get(0).sellerName()).isEqualTo("Pedrinho");
-        Assertions.assertThat(sellerStatisticsByPeriod.get(1).sellerName()).isEqualTo("Joãozinho");
+        Assertions.assertThat(sellerStatisticsByPeriod.get(0).sellerName()).isEqualTo("Joãozinho");
+        Assertions.assertThat(sellerStatisticsByPeriod.get(1).sellerName()).isEqualTo("Pedrinho");
+        Assertions.assertThat(sellerStatisticsByPeriod.get(0).averageDailySales()).isEqualByComparingTo("2.00");
 
-        Mockito.verify(saleRepository, Mockito.times(1)).findSellerStatisticsByPeriod(any(Instant.class), any(Instant.class), any(Long.class));
+        Mockito.verify(sellerRollupService, Mockito.times(1)).findSellerStatisticsByPeriod(any(StatisticsPeriod.class));
 
     }
 
 
+    // Statistics are kept per UTC day: partial-day bounds select the whole days they fall on, and those days are the divisor.
     @Test
-    public void assertThatWhenEndDateIsNullImplDefaultValue() {
+    public void assertThatPartialDayBoundsCoverTheirWholeUtcDays() {
+
+        StatisticsPeriod period = new StatisticsPeriod(LocalDate.parse("2025-10-20"), LocalDate.parse("2025-10-21"));
+        Mockito.when(sellerRollupService.findSellerStatisticsByPeriod(period)).thenReturn(Optional.of(List.of(new SellerProjection(1L, 2L, 200L, 2L))));
+
+        List<SellerDTO> sellerStatisticsByPeriod = saleService.getSellerStatisticsByPeriod(Instant.parse("2025-10-20T18:00:00Z"), Instant.parse("2025-10-21T06:00:00Z"));
 
-        SellerProjection mockedProjection = Mockito.mock(SellerProjection.class);
-        Mockito.when(mockedProjection.getSellerName()).thenReturn("Pedrinho");
-        Mockito.when(mockedProjection.getTotalSales()).thenReturn(2L);
-        Mockito.when(mockedProjection.getAverageSalesByDay()).thenReturn(1.0);
+        Assertions.assertThat(sellerStatisticsByPeriod).singleElement().satisfies(x -> {
+            Assertions.assertThat(x.days()).isEqualTo(2L);
+            Assertions.assertThat(x.averageDailySales()).isEqualByComparingTo("1.00");
+        });
+
+    }
 
 
-        Mockito.when(saleRepository.findSellerStatisticsByPeriod(any(Instant.class), any(Instant.class), any(Long.class))).thenReturn(Optional.of(List.of(mockedProjection)));
+    @Test
+    public void assertThatStatisticsETagCarriesTheResolvedDaysAndIsWithheldUntilSettled() {
+
+        StatisticsPeriod period = new StatisticsPeriod(LocalDate.parse("2025-10-20"), LocalDate.parse("2025-10-21"));
+        Mockito.when(statisticsDataVersions.version(period)).thenReturn(255L);
+        Mockito.when(statisticsDataVersions.isSettled(255L)).thenReturn(true, false);
+
+        Assertions.assertThat(saleService.getStatisticsETag(Instant.parse("2025-10-20T10:00:00Z"), Instant.parse("2025-10-21T18:00:00Z")))
+                .contains("2025-10-20-2025-10-21-ff");
+        Assertions.assertThat(saleService.getStatisticsETag(Instant.parse("2025-10-20T10:00:00Z"), Instant.parse("2025-10-21T18:00:00Z")))
+                .isEmpty();
+
+    }
+
+
+    @Test
+    public void assertThatCachedStatisticsAreServedWithoutQueryingRollups() {
+
+        List<SellerDTO> cached = List.of(new SellerDTO("Pedrinho", 2L, 200L, 2L));
+        Mockito.when(sellerStatisticsCache.get(new StatisticsPeriod(LocalDate.parse("2025-10-20"), LocalDate.parse("2025-10-21")))).thenReturn(Optional.of(cached));
+
+        List<SellerDTO> sellerStatisticsByPeriod = saleService.getSellerStatisticsByPeriod(Instant.parse("2025-10-20T10:00:00Z"), Instant.parse("2025-10-21T18:00:00Z"));
+
+        Assertions.assertThat(sellerStatisticsByPeriod).isSameAs(cached);
+        Mockito.verify(sellerRollupService, Mockito.never()).findSellerStatisticsByPeriod(any(StatisticsPeriod.class));
+
+    }
+
+
+    @Test
+    public void assertThatStatisticsInsideTheEngineWindowSkipCacheAndRollups() {
+
+        List<SellerProjection> inMemory = List.of(new SellerProjection(1L, 3L, 30000L, 0L));
+        Mockito.when(sellerStatisticsEngine.findSellerStatisticsByPeriod(new StatisticsPeriod(LocalDate.parse("2025-10-20"), LocalDate.parse("2025-10-21")))).thenReturn(Optional.of(inMemory));
+
+        List<SellerDTO> sellerStatisticsByPeriod = saleService.getSellerStatisticsByPeriod(Instant.parse("2025-10-20T00:00:00Z"), Instant.parse("2025-10-21T00:00:00Z"));
+
+        Assertions.assertThat(sellerStatisticsByPeriod).containsExactly(new SellerDTO("Pedrinho", 3L, 30000L, 2L));
+        Mockito.verifyNoInteractions(sellerStatisticsCache);
+        Mockito.verify(sellerRollupService, Mockito.never()).findSellerStatisticsByPeriod(any(StatisticsPeriod.class));
+
+    }
+
+    @Test
+    public void assertThatFullStatisticsPageReturnsCursorPointingAtItsLastSeller() {
+
+        SellerProjection seller = new SellerProjection(7L, 4L, 40000L, 1L);
+
+        Mockito.when(sellerRollupService.findSellerStatisticsPage(any(StatisticsPeriod.class), any(SellerStatisticsSort.class), any(), any()))
+                .thenReturn(List.of(seller));
+
+        SellerStatisticsPageDTO page = saleService.getSellerStatisticsPage(Instant.parse("2025-10-20T00:00:00Z"),
+                Instant.parse("2025-10-21T00:00:00Z"), "totalSales", 1, null);
+
+        Assertions.assertThat(page.sellers()).hasSize(1);
+        Assertions.assertThat(SellerStatisticsCursor.decode(page.nextCursor())).isEqualTo(new SellerStatisticsCursor(BigDecimal.valueOf(4L), 7L));
+
+    }
+
+    @Test
+    public void assertThatUnknownStatisticsSortIsRejected() {
+
+        Assertions.assertThatThrownBy(() -> saleService.getSellerStatisticsPage(Instant.parse("2025-10-20T00:00:00Z"),
+                Instant.parse("2025-10-21T00:00:00Z"), "sellerName", 10, null)).isInstanceOf(IllegalArgumentException.class);
+
+    }
+
+    @Test
+    public void assertThatFractionalTotalSalesCursorIsRejected() {
+
+        String cursor = new SellerStatisticsCursor(new BigDecimal("1.5"), 1L).encode();
+
+        Assertions.assertThatThrownBy(() -> saleService.getSellerStatisticsPage(Instant.parse("2025-10-20T00:00:00Z"),
+                Instant.parse("2025-10-21T00:00:00Z"), "totalSales", 10, cursor)).isInstanceOf(IllegalArgumentException.class);
+        Mockito.verifyNoInteractions(sellerRollupService);
+
+    }
+
+
+    @Test
+    public void assertThatWhenEndDateIsNullImplDefaultValue() {
+
+        SellerProjection mockedProjection = new SellerProjection(1L, 2L, 200L, 2L);
+
+        Mockito.when(sellerRollupService.findSellerStatisticsByPeriod(any(StatisticsPeriod.class))).thenReturn(Optional.of(List.of(mockedProjection)));
 
         Instant start = Instant.parse("2025-10-20T00:00:00Z");
         Instant end = null;
@@ -120,21 +284,17 @@ public class SaleServiceTest {
         Assertions.assertThat(sellerStatisticsByPeriod.size()).isEqualTo(1);
         Assertions.assertThat(sellerStatisticsByPeriod.get(0).sellerName()).isEqualTo("Pedrinho");
         Assertions.assertThat(sellerStatisticsByPeriod.get(0).totalSales()).isEqualTo(2L);
-        Assertions.assertThat(sellerStatisticsByPeriod.get(0).averageDailySales()).isEqualTo(1.0);
+        Assertions.assertThat(sellerStatisticsByPeriod.get(0).days()).isEqualTo(ChronoUnit.DAYS.between(LocalDate.parse("2025-10-20"), LocalDate.now(ZoneOffset.UTC)) + 1);
 
-        Mockito.verify(saleRepository, Mockito.times(1)).findSellerStatisticsByPeriod(any(Instant.class), any(Instant.class), any(Long.class));
+        Mockito.verify(sellerRollupService, Mockito.times(1)).findSellerStatisticsByPeriod(any(StatisticsPeriod.class));
 
     }
 
     @Test
     public void assertThatWhenDaysIsEqualToZeroImplDefaultValue() {
 
-        SellerProjection mockedProjection = Mockito.mock(SellerProjection.class);
-        Mockito.when(mockedProjection.getSellerName()).thenReturn("Pedrinho");
-        Mockito.when(mockedProjection.getTotalSales()).thenReturn(2L);
-        Mockito.when(mockedProjection.getAverageSalesByDay()).thenReturn(1.0);
-
-        Mockito.when(saleRepository.findSellerStatisticsByPeriod(any(Instant.class), any(Instant.class), any(Long.class))).thenReturn(Optional.of(List.of(mockedProjection)));
+        SellerProjection mockedProjection = new SellerProjection(1L, 2L, 200L, 2L);
+        Mockito.when(sellerRollupService.findSellerStatisticsByPeriod(any(StatisticsPeriod.class))).thenReturn(Optional.of(List.of(mockedProjection)));
         Instant start = Instant.parse("2025-10-20T00:00:00Z");
         Instant end = Instant.parse("2025-10-20T00:00:00Z");
 
@@ -146,7 +306,7 @@ public class SaleServiceTest {
     @Test
     public void assertThatWhenNoSellingFoundThrowNoSuchElementException() {
 
-        Mockito.when(saleRepository.findSellerStatisticsByPeriod(any(Instant.class), any(Instant.class), any(Long.class))).thenReturn(Optional.empty());
+        Mockito.when(sellerRollupService.findSellerStatisticsByPeriod(any(StatisticsPeriod.class))).thenReturn(Optional.empty());
         Assertions.assertThatThrownBy(() -> {
 
 
@@ -168,5 +328,41 @@ public class SaleServiceTest {
 
     }
 
+    @Test
+    public void assertThatDailySalesAreFoldedIntoWeeklyBucketsPerSeller() {
+
+        Mockito.when(saleRepository.findDailySellerSales(any(Instant.class), any(Instant.class), any(ZoneId.class))).thenReturn(List.of(
+                new SellerDailySales(1L, LocalDate.parse("2025-10-17"), 1L, BigDecimal.valueOf(30)),
+                new SellerDailySales(1L, LocalDate.parse("2025-10-20"), 2L, BigDecimal.valueOf(70)),
+                new SellerDailySales(1L, LocalDate.parse("2025-10-22"), 1L, BigDecimal.valueOf(70)),
+                new SellerDailySales(2L, LocalDate.parse("2025-10-21"), 1L, BigDecimal.valueOf(50))));
+
+        List<SellerTimeSeriesDTO> series = saleService.getSellerTimeSeriesByPeriod(Instant.parse("2025-10-16T12:00:00Z"),
+                Instant.parse("2025-10-22T12:00:00Z"), "week", "America/Sao_Paulo");
+
+        Assertions.assertThat(series).hasSize(2);
+        Assertions.assertThat(series.get(0).buckets()).containsExactly(
+                new SalesBucketDTO(LocalDate.parse("2025-10-13"), 1L, new BigDecimal("7.50")),
+                new SalesBucketDTO(LocalDate.parse("2025-10-20"), 3L, new BigDecimal("46.67")));
+        Assertions.assertThat(series.get(1).sellerName()).isEqualTo("Joãozinho");
+
+        Mockito.verify(saleRepository).findDailySellerSales(Instant.parse("2025-10-16T03:00:00Z"),
+                Instant.parse("2025-10-23T03:00:00Z"), ZoneId.of("America/Sao_Paulo"));
+    }
+
+    @Test
+    public void assertThatUnknownGranularityIsRejected() {
+
+        Assertions.assertThatThrownBy(() -> saleService.getSellerTimeSeriesByPeriod(Instant.parse("2025-10-20T00:00:00Z"),
+                Instant.parse("2025-10-21T00:00:00Z"), "hour", null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void assertThatUnknownZoneIsRejected() {
+
+        Assertions.assertThatThrownBy(() -> saleService.getSellerTimeSeriesByPeriod(Instant.parse("2025-10-20T00:00:00Z"),
+                Instant.parse("2025-10-21T00:00:00Z"), "day", "Mars/Olympus_Mons")).isInstanceOf(IllegalArgumentException.class);
+    }
+
 
 }
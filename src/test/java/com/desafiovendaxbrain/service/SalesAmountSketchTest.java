@@ -0,0 +1,83 @@
+package com.desafiovendaxbrain.service;
+
+import com.desafiovendaxbrain.model.SellerDailyAmountBucket;
+import org.assertj.core.api.Assertions;
+import org.assertj.core.data.Percentage;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+
+public class SalesAmountSketchTest {
+
+    private final static long SEED = 42L;
+
+    @Test
+    public void assertThatQuantilesStayWithinTheRelativeAccuracy() {
+
+        Random random = new Random(SEED);
+        BigDecimal[] amounts = new BigDecimal[100_000];
+        SalesAmountSketch sketch = new SalesAmountSketch();
+
+        for (int i = 0; i < amounts.length; i++) {
+            amounts[i] = BigDecimal.valueOf(Math.max(1, Math.round(Math.exp(8 + 2 * random.nextGaussian()))), 2);
+            sketch.add(amounts[i]);
+        }
+
+        Arrays.sort(amounts);
+
+        for (double q : new double[]{0.0, 0.25, 0.5, 0.9, 0.95, 0.99, 1.0}) {
+
+            BigDecimal exact = amounts[(int) Math.floor(q * (amounts.length - 1))];
+
+            Assertions.assertThat(sketch.quantile(q).doubleValue()).isCloseTo(exact.doubleValue(),
+                    Percentage.withPercentage(SellerDailyAmountBucket.RELATIVE_ACCURACY * 100 + 0.5));
+        }
+
+    }
+
+    @Test
+    public void assertThatMergedSketchesMatchOneSketchOverAllAmounts() {
+
+        Random random = new Random(SEED);
+        SalesAmountSketch monday = new SalesAmountSketch();
+        SalesAmountSketch tuesday = new SalesAmountSketch();
+        SalesAmountSketch period = new SalesAmountSketch();
+
+        for (int i = 0; i < 10_000; i++) {
+            BigDecimal amount = BigDecimal.valueOf(random.nextInt(1_000_000) + 1, 2);
+            (i % 2 == 0 ? monday : tuesday).add(amount);
+            period.add(amount);
+        }
+
+        monday.merge(tuesday);
+
+        Assertions.assertThat(monday.count()).isEqualTo(period.count());
+        Assertions.assertThat(monday.percentiles()).isEqualTo(period.percentiles());
+
+    }
+
+    @Test
+    public void assertThatBucketCountIsBoundedByTheAmountRange() {
+
+        SalesAmountSketch sketch = new SalesAmountSketch();
+
+        for (long cents = 1; cents < 10_000_000_000L; cents = cents * 11 / 10 + 1) {
+            sketch.add(BigDecimal.valueOf(cents, 2));
+        }
+        sketch.add(new BigDecimal("99999999.99"));
+
+        Assertions.assertThat(sketch.buckets()).isLessThanOrEqualTo(SellerDailyAmountBucket.bucketOf(new BigDecimal("99999999.99")) + 1);
+        Assertions.assertThat(sketch.quantile(1.0)).isCloseTo(new BigDecimal("99999999.99"), Percentage.withPercentage(1));
+
+    }
+
+    @Test
+    public void assertThatEmptySketchHasNoQuantile() {
+
+        Assertions.assertThat(new SalesAmountSketch().quantile(0.5)).isNull();
+
+    }
+
+}
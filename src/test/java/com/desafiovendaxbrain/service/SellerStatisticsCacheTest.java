@@ -0,0 +1,114 @@
+package com.desafiovendaxbrain.service;
+
+import com.desafiovendaxbrain.dto.SellerDTO;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+public class SellerStatisticsCacheTest {
+
+    private SellerStatisticsCache cache;
+    private List<SellerDTO> statistics;
+
+    @BeforeEach
+    public void setup() {
+
+        cache = new SellerStatisticsCache(10, Duration.ofMinutes(5), Duration.ZERO);
+        statistics = List.of(new SellerDTO("Pedrinho", 2L, 200L, 2L));
+
+    }
+
+    @Test
+    public void assertThatOnlyPeriodsCoveringTheSaleDayAreInvalidated() {
+
+        cache.put(new StatisticsPeriod(LocalDate.parse("2025-10-01"), LocalDate.parse("2025-10-31")), statistics, cache.version());
+        cache.put(new StatisticsPeriod(LocalDate.parse("2025-09-01"), LocalDate.parse("2025-09-30")), statistics, cache.version());
+
+        cache.invalidate(Set.of(LocalDate.parse("2025-10-31")));
+
+        Assertions.assertThat(cache.get(new StatisticsPeriod(LocalDate.parse("2025-10-01"), LocalDate.parse("2025-10-31")))).isEmpty();
+        Assertions.assertThat(cache.get(new StatisticsPeriod(LocalDate.parse("2025-09-01"), LocalDate.parse("2025-09-30")))).contains(statistics);
+
+    }
+
+    @Test
+    public void assertThatPeriodsCachedAgainAfterAnInvalidationAreInvalidatedByLaterWrites() {
+
+        StatisticsPeriod october = new StatisticsPeriod(LocalDate.parse("2025-10-01"), LocalDate.parse("2025-10-31"));
+        StatisticsPeriod year = new StatisticsPeriod(LocalDate.parse("2025-01-01"), LocalDate.parse("2025-12-31"));
+
+        cache.put(october, statistics, cache.version());
+        cache.invalidateAll();
+        cache.put(october, statistics, cache.version());
+        cache.put(year, statistics, cache.version());
+
+        cache.invalidate(Set.of(LocalDate.parse("2025-10-15")));
+
+        Assertions.assertThat(cache.get(october)).isEmpty();
+        Assertions.assertThat(cache.get(year)).isEmpty();
+
+    }
+
+    @Test
+    public void assertThatLongPeriodsAreInvalidatedByAnyDayTheyCover() {
+
+        StatisticsPeriod history = new StatisticsPeriod(LocalDate.parse("0001-01-01"), LocalDate.parse("2025-10-31"));
+        StatisticsPeriod november = new StatisticsPeriod(LocalDate.parse("2025-11-01"), LocalDate.parse("2025-11-30"));
+
+        cache.put(history, statistics, cache.version());
+        cache.put(november, statistics, cache.version());
+
+        cache.invalidate(Set.of(LocalDate.parse("2025-12-01")));
+
+        Assertions.assertThat(cache.get(history)).contains(statistics);
+        Assertions.assertThat(cache.get(november)).contains(statistics);
+
+        cache.invalidate(Set.of(LocalDate.parse("1900-06-15"), LocalDate.parse("2025-12-01")));
+
+        Assertions.assertThat(cache.get(history)).isEmpty();
+        Assertions.assertThat(cache.get(november)).contains(statistics);
+
+    }
+
+    @Test
+    public void assertThatResultLoadedBeforeAnInvalidationIsNotCached() {
+
+        long version = cache.version();
+        cache.invalidate(Set.of(LocalDate.parse("2025-10-15")));
+
+        cache.put(new StatisticsPeriod(LocalDate.parse("2025-10-01"), LocalDate.parse("2025-10-31")), statistics, version);
+
+        Assertions.assertThat(cache.get(new StatisticsPeriod(LocalDate.parse("2025-10-01"), LocalDate.parse("2025-10-31")))).isEmpty();
+
+    }
+
+    @Test
+    public void assertThatResultReadWithinTheSettleTimeOfACommitIsNotCached() {
+
+        SellerStatisticsCache settlingCache = new SellerStatisticsCache(10, Duration.ofMinutes(5), Duration.ofMinutes(1));
+        settlingCache.invalidate(Set.of(LocalDate.parse("2025-10-15")));
+
+        settlingCache.put(new StatisticsPeriod(LocalDate.parse("2025-09-01"), LocalDate.parse("2025-09-30")), statistics, settlingCache.version());
+
+        Assertions.assertThat(settlingCache.get(new StatisticsPeriod(LocalDate.parse("2025-09-01"), LocalDate.parse("2025-09-30")))).isEmpty();
+
+    }
+
+    @Test
+    public void assertThatHitsAndMissesAreRecorded() {
+
+        cache.get(new StatisticsPeriod(LocalDate.parse("2025-10-01"), LocalDate.parse("2025-10-31")));
+        cache.put(new StatisticsPeriod(LocalDate.parse("2025-10-01"), LocalDate.parse("2025-10-31")), statistics, cache.version());
+        cache.get(new StatisticsPeriod(LocalDate.parse("2025-10-01"), LocalDate.parse("2025-10-31")));
+
+        Assertions.assertThat(cache.stats().missCount()).isEqualTo(1);
+        Assertions.assertThat(cache.stats().hitCount()).isEqualTo(1);
+
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.desafiovendaxbrain.service;
+
+import com.desafiovendaxbrain.repository.projection.SellerProjection;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public class SellerStatisticsChunkedAggregatorTest {
+
+    private SellerRollupService sellerRollupService;
+    private SellerStatisticsChunkedAggregator aggregator;
+
+    @BeforeEach
+    public void setup() {
+
+        sellerRollupService = Mockito.mock(SellerRollupService.class);
+        aggregator = new SellerStatisticsChunkedAggregator(sellerRollupService, true, 366, 4, 2);
+
+    }
+
+    @AfterEach
+    public void tearDown() {
+
+        aggregator.shutdown();
+
+    }
+
+    @Test
+    public void assertThatOnlyPeriodsAboveTheCutoffAreChunked() {
+
+        Assertions.assertThat(aggregator.appliesTo(new StatisticsPeriod(LocalDate.parse("2025-01-01"), LocalDate.parse("2025-12-31")))).isFalse();
+        Assertions.assertThat(aggregator.appliesTo(new StatisticsPeriod(LocalDate.parse("2024-01-01"), LocalDate.parse("2024-12-31")))).isTrue();
+
+    }
+
+    @Test
+    public void assertThatPeriodIsSplitIntoContiguousRangesCoveringEveryDay() {
+
+        List<StatisticsPeriod> ranges = aggregator.split(new StatisticsPeriod(LocalDate.parse("2025-01-01"), LocalDate.parse("2025-01-10")));
+
+        Assertions.assertThat(ranges).containsExactly(
+                new StatisticsPeriod(LocalDate.parse("2025-01-01"), LocalDate.parse("2025-01-03")),
+                new StatisticsPeriod(LocalDate.parse("2025-01-04"), LocalDate.parse("2025-01-06")),
+                new StatisticsPeriod(LocalDate.parse("2025-01-07"), LocalDate.parse("2025-01-09")),
+                new StatisticsPeriod(LocalDate.parse("2025-01-10"), LocalDate.parse("2025-01-10")));
+
+    }
+
+    @Test
+    public void assertThatPartialSumsAreMergedPerSeller() {
+
+        StatisticsPeriod period = new StatisticsPeriod(LocalDate.parse("2022-01-01"), LocalDate.parse("2025-12-31"));
+        List<StatisticsPeriod> ranges = aggregator.split(period);
+
+        Mockito.when(sellerRollupService.findSellerStatisticsByPeriod(ranges.get(0))).thenReturn(Optional.of(List.of(new SellerProjection(2L, 1L, 500L, 1L))));
+        Mockito.when(sellerRollupService.findSellerStatisticsByPeriod(ranges.get(1))).thenReturn(Optional.of(List.of()));
+        Mockito.when(sellerRollupService.findSellerStatisticsByPeriod(ranges.get(2))).thenReturn(Optional.of(List.of(new SellerProjection(1L, 2L, 300L, 2L),
+                new SellerProjection(2L, 3L, 700L, 2L))));
+        Mockito.when(sellerRollupService.findSellerStatisticsByPeriod(ranges.get(3))).thenReturn(Optional.of(List.of(new SellerProjection(1L, 1L, 100L, 1L))));
+
+        Assertions.assertThat(aggregator.findSellerStatisticsByPeriod(period)).hasValue(List.of(
+                new SellerProjection(1L, 3L, 400L, 3L),
+                new SellerProjection(2L, 4L, 1200L, 3L)));
+
+    }
+
+}
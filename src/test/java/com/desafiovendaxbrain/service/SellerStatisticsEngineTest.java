@@ -0,0 +1,83 @@
+package com.desafiovendaxbrain.service;
+
+import com.desafiovendaxbrain.model.Sale;
+import com.desafiovendaxbrain.repository.SellerDailyRollupRepository;
+import com.desafiovendaxbrain.repository.projection.SellerDailySales;
+import com.desafiovendaxbrain.repository.projection.SellerProjection;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+
+public class SellerStatisticsEngineTest {
+
+    private SellerDailyRollupRepository rollupRepository;
+    private SellerStatisticsEngine engine;
+    private LocalDate today;
+
+    @BeforeEach
+    public void setup() {
+
+        rollupRepository = Mockito.mock(SellerDailyRollupRepository.class);
+        engine = new SellerStatisticsEngine(true, 30, rollupRepository, Mockito.mock(PlatformTransactionManager.class));
+        today = LocalDate.now(ZoneOffset.UTC);
+
+    }
+
+    @Test
+    public void assertThatWarmedUpAndRecordedSalesAreSummedPerPeriod() {
+
+        Mockito.when(rollupRepository.streamDailySalesFrom(any(LocalDate.class))).thenReturn(Stream.of(
+                new SellerDailySales(1L, today.minusDays(2), 2L, BigDecimal.valueOf(200)),
+                new SellerDailySales(2L, today.minusDays(1), 1L, BigDecimal.valueOf(60))));
+
+        engine.start();
+        engine.record(List.of(createSale(today, BigDecimal.valueOf(100), 1L, "Pedrinho")));
+
+        List<SellerProjection> statistics = engine.findSellerStatisticsByPeriod(new StatisticsPeriod(today.minusDays(2), today)).orElseThrow();
+
+        Assertions.assertThat(statistics).containsExactlyInAnyOrder(new SellerProjection(2L, 1L, 6000L, 0L), new SellerProjection(1L, 3L, 30000L, 0L));
+        Assertions.assertThat(engine.findSellerStatisticsByPeriod(new StatisticsPeriod(today, today)).orElseThrow())
+                .containsExactly(new SellerProjection(1L, 1L, 10000L, 0L));
+
+    }
+
+    @Test
+    public void assertThatPeriodsOutsideTheRetainedWindowAreLeftToTheDatabase() {
+
+        Mockito.when(rollupRepository.streamDailySalesFrom(any(LocalDate.class))).thenReturn(Stream.empty());
+
+        engine.start();
+
+        Assertions.assertThat(engine.findSellerStatisticsByPeriod(new StatisticsPeriod(today.minusDays(30), today))).isEmpty();
+        Assertions.assertThat(engine.findSellerStatisticsByPeriod(new StatisticsPeriod(today.minusDays(29), today))).hasValue(List.of());
+
+    }
+
+    @Test
+    public void assertThatNothingIsServedBeforeWarmUp() {
+
+        Assertions.assertThat(engine.findSellerStatisticsByPeriod(new StatisticsPeriod(today, today))).isEmpty();
+
+    }
+
+    private Sale createSale(LocalDate day, BigDecimal amount, Long sellerId, String sellerName) {
+
+        Sale sale = new Sale();
+        sale.setSaleDate(day.atStartOfDay(ZoneOffset.UTC).toInstant());
+        sale.setAmount(amount);
+        sale.setSellerId(sellerId);
+        sale.setSellerName(sellerName);
+        return sale;
+    }
+
+}
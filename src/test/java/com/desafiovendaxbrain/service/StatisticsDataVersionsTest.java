@@ -0,0 +1,74 @@
+package com.desafiovendaxbrain.service;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Set;
+
+public class StatisticsDataVersionsTest {
+
+    private StatisticsDataVersions versions;
+    private StatisticsPeriod october;
+    private StatisticsPeriod september;
+
+    @BeforeEach
+    public void setup() {
+
+        versions = new StatisticsDataVersions(Duration.ZERO);
+        october = new StatisticsPeriod(LocalDate.parse("2025-10-01"), LocalDate.parse("2025-10-31"));
+        september = new StatisticsPeriod(LocalDate.parse("2025-09-01"), LocalDate.parse("2025-09-30"));
+
+    }
+
+    @Test
+    public void assertThatOnlyPeriodsCoveringTheSaleDayChangeVersion() {
+
+        long octoberBefore = versions.version(october);
+        long septemberBefore = versions.version(september);
+
+        versions.record(Set.of(LocalDate.parse("2025-10-31")));
+
+        Assertions.assertThat(versions.version(october)).isGreaterThan(octoberBefore);
+        Assertions.assertThat(versions.version(september)).isEqualTo(septemberBefore);
+
+    }
+
+    @Test
+    public void assertThatWritesInTheSameMillisecondStillChangeVersion() {
+
+        versions.record(Set.of(LocalDate.parse("2025-10-15")));
+        long first = versions.version(october);
+
+        versions.record(Set.of(LocalDate.parse("2025-10-15")));
+
+        Assertions.assertThat(versions.version(october)).isGreaterThan(first);
+
+    }
+
+    @Test
+    public void assertThatResetChangesEveryPeriod() {
+
+        long septemberBefore = versions.version(september);
+
+        versions.resetAll();
+
+        Assertions.assertThat(versions.version(september)).isGreaterThan(septemberBefore);
+
+    }
+
+    @Test
+    public void assertThatVersionsWithinTheSettleTimeAreNotSettled() {
+
+        StatisticsDataVersions settlingVersions = new StatisticsDataVersions(Duration.ofMinutes(1));
+
+        settlingVersions.record(Set.of(LocalDate.parse("2025-10-15")));
+
+        Assertions.assertThat(settlingVersions.isSettled(settlingVersions.version(october))).isFalse();
+        Assertions.assertThat(versions.isSettled(versions.version(october))).isTrue();
+
+    }
+
+}
@@ -6,6 +6,9 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.temporal.ChronoField;
 import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
 
 
 public record SaleDTOFactory(Long id, Instant saleDate, BigDecimal salePrice, Long sellerId, String sellerName)  {
@@ -41,4 +44,43 @@ public record SaleDTOFactory(Long id, Instant saleDate, BigDecimal salePrice, Lo
 
     }
 
+
+    // Lazily generates valid sales spread over the year before 2025-10-01, so large datasets never sit in memory at once.
+    public static Iterable<SaleDTO> getSyntheticValidDTOs(long count, int sellers, long seed) {
+
+        return getSyntheticValidDTOs(count, sellers, seed, 365);
+    }
+
+    // Same as above over the given number of days, for benchmarks whose periods go past a year.
+    public static Iterable<SaleDTO> getSyntheticValidDTOs(long count, int sellers, long seed, long days) {
+
+        Instant lastDay = Instant.parse("2025-10-01T00:00:00Z");
+
+        return () -> new Iterator<>() {
+
+            private final Random random = new Random(seed);
+            private long generated;
+
+            @Override
+            public boolean hasNext() {
+                return generated < count;
+            }
+
+            @Override
+            public SaleDTO next() {
+
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                generated++;
+                long sellerId = random.nextInt(sellers) + 1;
+
+                return new SaleDTO(null, lastDay.minusSeconds(random.nextLong(days * 24 * 60 * 60)),
+                        BigDecimal.valueOf(random.nextInt(100_000) + 1, 2), sellerId, "Seller " + sellerId);
+            }
+        };
+
+    }
+
 }